@@ -11,7 +11,12 @@ public enum CapacitorModifier {
     /**
      * @apiNote Capacitors should never multiply the FIXED modifiers...
      */
-    FIXED;
+    FIXED,
+
+    /**
+     * How many recipes a crafting machine may craft in one task.
+     */
+    PARALLEL;
 
     public final ResourceLocation id;
 
@@ -2,14 +2,37 @@ package com.enderio.api.capacitor;
 
 import net.minecraftforge.common.util.NonNullSupplier;
 
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Supplier;
 
 /**
  * A scalable value is a value which can be scaled based on a capacitor.
  * This is designed so that things scaled by capacitors can be provided into non-specific domains.
  * It also allows for the base value of a scalable to be powered by configs.
+ * Users may cache scaled values, and must scale them again when the capacitor changes or {@link #getCacheGeneration()} changes.
  */
 public interface ICapacitorScalable {
     Supplier<Float> scaleF(NonNullSupplier<ICapacitorData> data);
     Supplier<Integer> scaleI(NonNullSupplier<ICapacitorData> data);
+
+    /**
+     * Invalidate all cached scaled values, because base values may have changed.
+     * Called when configs are reloaded.
+     */
+    static void invalidateCaches() {
+        CacheGeneration.GENERATION.incrementAndGet();
+    }
+
+    /**
+     * Get a counter that changes whenever cached scaled values are invalidated.
+     */
+    static int getCacheGeneration() {
+        return CacheGeneration.GENERATION.get();
+    }
+
+    final class CacheGeneration {
+        private static final AtomicInteger GENERATION = new AtomicInteger();
+
+        private CacheGeneration() {}
+    }
 }
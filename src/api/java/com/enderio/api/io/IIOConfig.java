@@ -51,6 +51,19 @@ public interface IIOConfig extends INBTSerializable<CompoundTag>, IEnderCapabili
      */
     boolean supportsMode(Direction side, IOMode state);
 
+    /**
+     * Get the most fluid in mB moved through this side per transfer, or {@link Integer#MAX_VALUE} if it is not capped.
+     */
+    default int getFluidTransferLimit(Direction side) {
+        return Integer.MAX_VALUE;
+    }
+
+    /**
+     * Cap the fluid moved through this side per transfer.
+     * Configs that don't support caps ignore this.
+     */
+    default void setFluidTransferLimit(Direction side, int limit) {}
+
     /**
      * Whether the IO overlay should be rendered.
      */
@@ -2,17 +2,21 @@ package com.enderio.core.common.blockentity;
 
 import com.enderio.api.UseOnly;
 import com.enderio.api.capability.IEnderCapabilityProvider;
+import com.enderio.core.common.network.CoreNetwork;
 import com.enderio.core.common.sync.EnderDataSlot;
 import com.enderio.core.common.sync.SyncMode;
+import com.enderio.core.common.sync.SyncRate;
+import com.enderio.core.common.sync.SyncStatistics;
+import io.netty.buffer.Unpooled;
 import net.minecraft.core.BlockPos;
 import net.minecraft.core.Direction;
 import net.minecraft.nbt.CompoundTag;
-import net.minecraft.nbt.ListTag;
 import net.minecraft.nbt.Tag;
 import net.minecraft.network.Connection;
+import net.minecraft.network.FriendlyByteBuf;
 import net.minecraft.network.protocol.Packet;
 import net.minecraft.network.protocol.game.ClientboundBlockEntityDataPacket;
-import net.minecraft.server.level.ServerChunkCache;
+import net.minecraft.server.level.ServerLevel;
 import net.minecraft.server.level.ServerPlayer;
 import net.minecraft.world.level.ChunkPos;
 import net.minecraft.world.level.Level;
@@ -31,18 +35,48 @@ import java.util.*;
  * Handles data slot syncing and capability providers.
  */
 public class EnderBlockEntity extends BlockEntity {
-    /**
-     * This list is needed to send a full update packet to Players who started tracking this BlockEntity.
-     * The Clients only receive changed data to reduce the amount of Data sent to the client.
-     */
-    private final List<UUID> lastSyncedToPlayers = new ArrayList<>();
-
     private final List<EnderDataSlot<?>> dataSlots = new ArrayList<>();
 
     private final List<EnderDataSlot<?>> clientDecidingDataSlots = new ArrayList<>();
 
     private final Map<Capability<?>, IEnderCapabilityProvider<?>> capabilityProviders = new HashMap<>();
 
+    /**
+     * Whether this block entity is waiting in the {@link SyncScheduler} of its level.
+     */
+    private boolean syncQueued;
+
+    /**
+     * Whether the last partial update held back changed data slots.
+     */
+    private boolean hasDeferredDataSlots;
+
+    /**
+     * Whether this block entity changed since its last sync flush.
+     * Further changes in the same tick don't need to mark the chunk unsaved again.
+     */
+    private boolean changedThisTick;
+
+    /**
+     * Sleep until this block entity is woken, see {@link #getSleepTicks()}.
+     */
+    public static final int SLEEP_UNTIL_WOKEN = Integer.MAX_VALUE;
+
+    /**
+     * How long a block entity stays awake after {@link #wakeUp()}, so work done on a slower cadence gets a chance to run.
+     */
+    private static final int WAKE_TICKS = 20;
+
+    /**
+     * The game time until which {@link #serverTick()} is skipped.
+     */
+    private long sleepUntil;
+
+    /**
+     * The game time until which this block entity may not fall asleep.
+     */
+    private long awakeUntil;
+
     public EnderBlockEntity(BlockEntityType<?> type, BlockPos worldPosition, BlockState blockState) {
         super(type, worldPosition, blockState);
     }
@@ -53,19 +87,71 @@ public class EnderBlockEntity extends BlockEntity {
         if (level.isClientSide) {
             blockEntity.clientTick();
         } else {
+            long gameTime = level.getGameTime();
+            if (gameTime < blockEntity.sleepUntil)
+                return;
+
             blockEntity.serverTick();
+
+            if (gameTime >= blockEntity.awakeUntil) {
+                int sleepTicks = blockEntity.getSleepTicks();
+                if (sleepTicks > 0) {
+                    blockEntity.sleepUntil = gameTime + sleepTicks;
+                }
+            }
         }
     }
 
+    /**
+     * How many ticks this block entity can skip after its current tick, because it has nothing to do.
+     * It is woken early by {@link #wakeUp()}, which {@link #setChanged()} calls on every change.
+     * Block entities that were woken or changed during the last {@link #WAKE_TICKS} ticks are not asked.
+     * @return 0 to keep ticking, {@link #SLEEP_UNTIL_WOKEN} if only a change or event can give it work.
+     */
+    protected int getSleepTicks() {
+        return 0;
+    }
+
+    /**
+     * Resume ticking this block entity.
+     * Call this when something outside of the block entity may have given it work, e.g. a neighbor or redstone change.
+     */
+    public void wakeUp() {
+        sleepUntil = 0;
+        if (level != null) {
+            awakeUntil = level.getGameTime() + WAKE_TICKS;
+        }
+        onWakeUp();
+    }
+
+    /**
+     * Called by {@link #wakeUp()}, whether or not this block entity was sleeping.
+     * Tick managers that stop visiting sleeping block entities override this to resume ticking it.
+     */
+    protected void onWakeUp() {
+
+    }
+
+    /**
+     * Whether this block entity is currently skipping its server ticks.
+     */
+    public boolean isSleeping() {
+        return level != null && level.getGameTime() < sleepUntil;
+    }
+
+    /**
+     * Get the game time this block entity sleeps until.
+     * It is {@link #SLEEP_UNTIL_WOKEN} ticks after it fell asleep if only {@link #wakeUp()} ends the sleep.
+     */
+    public long getSleepUntil() {
+        return sleepUntil;
+    }
+
     /**
      * Perform server-side ticking
      */
     public void serverTick() {
-        // Perform syncing.
-        if (level != null && !level.isClientSide) {
-            sync();
-            setChanged();
-        }
+
     }
 
     /**
@@ -98,74 +184,219 @@ public class EnderBlockEntity extends BlockEntity {
      */
     @Nullable
     public ClientboundBlockEntityDataPacket createUpdatePacket(boolean fullUpdate, SyncMode mode) {
+        return createUpdatePacket(fullUpdate, mode, false);
+    }
+
+    /**
+     * create the ClientBoundBlockEntityDataPacket for this BlockEntity
+     * @param fullUpdate if this packet should send all information (this is used for players who started tracking this BlockEntity)
+     * @param deferLowPriority if data slots with a deferrable {@link SyncRate} should be held back, because the receiver is saturated
+     * @return the UpdatePacket
+     */
+    @Nullable
+    public ClientboundBlockEntityDataPacket createUpdatePacket(boolean fullUpdate, SyncMode mode, boolean deferLowPriority) {
+        byte[] data = createUpdateData(fullUpdate, mode, deferLowPriority);
+        if (data == null)
+            return null;
+
+        if (SyncStatistics.isEnabled()) {
+            SyncStatistics.recordUpdate(getType(), mode, data.length, 1);
+            SyncStatistics.recordPacket(ClientboundBlockEntityDataPacket.class, data.length);
+        }
+
         CompoundTag nbt = new CompoundTag();
-        ListTag listNBT = new ListTag();
+        nbt.putByteArray("data", data);
+        return new ClientboundBlockEntityDataPacket(getBlockPos(), getType(), nbt);
+    }
+
+    /**
+     * Create the data slot stream for this BlockEntity.
+     * @param fullUpdate if all information should be written (this is used for players who started tracking this BlockEntity)
+     * @param deferLowPriority if data slots with a deferrable {@link SyncRate} should be held back, because the receiver is saturated
+     * @return the stream, or null if no data slot was written
+     */
+    @Nullable
+    public byte[] createUpdateData(boolean fullUpdate, SyncMode mode, boolean deferLowPriority) {
+        FriendlyByteBuf buf = new FriendlyByteBuf(Unpooled.buffer());
+        if (!writeDataSlots(buf, fullUpdate, mode, deferLowPriority))
+            return null;
+
+        byte[] data = new byte[buf.readableBytes()];
+        buf.readBytes(data);
+        return data;
+    }
+
+    /**
+     * Write the data slots of the given mode as a stream of data slot index and payload.
+     * Partial updates respect each data slot's {@link SyncRate}. Changed data slots that were held back are remembered, see {@link #hasDeferredDataSlots()}.
+     * @param fullUpdate whether all data slots should be written, or only the ones that changed since the last partial update
+     * @param deferLowPriority if data slots with a deferrable {@link SyncRate} should be held back
+     * @return whether any data slot was written
+     */
+    public boolean writeDataSlots(FriendlyByteBuf buf, boolean fullUpdate, SyncMode mode, boolean deferLowPriority) {
+        long gameTime = level != null ? level.getGameTime() : 0;
+        boolean recordStatistics = SyncStatistics.isEnabled();
+        boolean written = false;
+        boolean deferred = false;
         for (int i = 0; i < this.dataSlots.size(); i++) {
             EnderDataSlot<?> dataSlot = this.dataSlots.get(i);
             if (dataSlot.getSyncMode() == mode) {
-                Optional<CompoundTag> optionalNBT = fullUpdate ? Optional.of(dataSlot.toFullNBT()) : dataSlot.toOptionalNBT();
-
-                if (optionalNBT.isPresent()) {
-                    CompoundTag elementNBT = optionalNBT.get();
-                    elementNBT.putInt("dataSlotIndex", i);
-                    listNBT.add(elementNBT);
+                int start = buf.writerIndex();
+                if (fullUpdate) {
+                    buf.writeVarInt(i);
+                    dataSlot.toBuffer(buf);
+                    written = true;
+                } else if (dataSlot.hasChanged()) {
+                    if (!dataSlot.canUpdate(gameTime) || (deferLowPriority && dataSlot.getSyncRate().isDeferrable())) {
+                        deferred = true;
+                    } else {
+                        buf.writeVarInt(i);
+                        dataSlot.writeChanges(buf, gameTime);
+                        written = true;
+                    }
+                }
+                if (recordStatistics && buf.writerIndex() > start) {
+                    SyncStatistics.recordDataSlot(getType(), i, dataSlot, buf.writerIndex() - start);
                 }
             }
         }
+        if (!fullUpdate) {
+            hasDeferredDataSlots = deferred;
+        }
+        return written;
+    }
 
-        if (listNBT.isEmpty())
-            return null;
+    /**
+     * @return whether the last partial update held back changed data slots, which have to be sent later
+     */
+    public boolean hasDeferredDataSlots() {
+        return hasDeferredDataSlots;
+    }
 
-        nbt.put("data", listNBT);
-        return new ClientboundBlockEntityDataPacket(getBlockPos(), getType(), nbt);
+    /**
+     * Read a stream written by {@link #writeDataSlots(FriendlyByteBuf, boolean, SyncMode, boolean)} until the buffer is exhausted.
+     */
+    public void readDataSlots(FriendlyByteBuf buf) {
+        while (buf.isReadable()) {
+            int dataSlotIndex = buf.readVarInt();
+            dataSlots.get(dataSlotIndex).handleBuffer(buf);
+        }
     }
 
     @Override
     public void onDataPacket(Connection net, ClientboundBlockEntityDataPacket pkt) {
         CompoundTag nbt = pkt.getTag();
-        if (nbt != null && nbt.contains("data", Tag.TAG_LIST)) {
-            ListTag listNBT = nbt.getList("data", Tag.TAG_COMPOUND);
-            for (Tag tag : listNBT) {
-                CompoundTag elementNBT = (CompoundTag) tag;
-                int dataSlotIndex = elementNBT.getInt("dataSlotIndex");
-                dataSlots.get(dataSlotIndex).handleNBT(elementNBT);
+        if (nbt != null && nbt.contains("data", Tag.TAG_BYTE_ARRAY)) {
+            readDataSlots(new FriendlyByteBuf(Unpooled.wrappedBuffer(nbt.getByteArray("data"))));
+        }
+    }
+
+    @Override
+    public void onLoad() {
+        super.onLoad();
+
+        // Send the initial values to players already watching this chunk.
+        requestSync();
+        wakeUp();
+    }
+
+    /**
+     * Mark this block entity as changed, so its chunk is saved and its data slots are synced.
+     * Call this whenever persisted state actually changes, idle block entities must not call it.
+     * Only the first call in a tick marks the chunk unsaved. Also wakes the block entity up.
+     */
+    @Override
+    public void setChanged() {
+        if (level instanceof ServerLevel) {
+            wakeUp();
+            if (!changedThisTick) {
+                changedThisTick = true;
+                super.setChanged();
             }
+            requestSync();
+        } else {
+            super.setChanged();
+        }
+    }
+
+    /**
+     * Request a sync of this block entity's data slots at the end of the current tick.
+     * Called by {@link #setChanged()}, call this directly if a synced value changes without the block entity being changed.
+     */
+    public void requestSync() {
+        if (!syncQueued && level instanceof ServerLevel serverLevel) {
+            syncQueued = true;
+            SyncScheduler.get(serverLevel).queue(this);
         }
     }
 
-    public void addDataSlot(EnderDataSlot<?> slot) {
+    /**
+     * Called by the {@link SyncScheduler} when this block entity's queued sync is due.
+     */
+    @UseOnly(LogicalSide.SERVER)
+    void onSyncFlushed(SyncScheduler scheduler) {
+        syncQueued = false;
+        changedThisTick = false;
+        if (!isRemoved()) {
+            sync(scheduler);
+        }
+    }
+
+    public <S extends EnderDataSlot<?>> S addDataSlot(S slot) {
         dataSlots.add(slot);
+        return slot;
     }
 
-    public void addClientDecidingDataSlot(EnderDataSlot<?> slot) {
+    /**
+     * Add a data slot the client may change. Keep the returned slot to submit edits from the menu.
+     */
+    public <S extends EnderDataSlot<?>> S addClientDecidingDataSlot(S slot) {
         clientDecidingDataSlots.add(slot);
+        return slot;
     }
 
-    public void add2WayDataSlot(EnderDataSlot<?> slot) {
+    public <S extends EnderDataSlot<?>> S add2WayDataSlot(S slot) {
         addDataSlot(slot);
-        addClientDecidingDataSlot(slot);
+        return addClientDecidingDataSlot(slot);
     }
 
     /**
-     * Sync the BlockEntity to all tracking players.
+     * Sync changed data slots to all tracking players.
+     * Players who started tracking this BlockEntity receive a full update from the {@link SyncScheduler} instead.
+     * The updates are batched per chunk by {@link CoreNetwork}.
      */
     @UseOnly(LogicalSide.SERVER)
-    private void sync() {
-        ClientboundBlockEntityDataPacket fullUpdate = createUpdatePacket(true, SyncMode.WORLD);
-        ClientboundBlockEntityDataPacket partialUpdate = getUpdatePacket();
-
-        List<UUID> currentlyTracking = new ArrayList<>();
-
-        getTrackingPlayers().forEach(serverPlayer -> {
-            currentlyTracking.add(serverPlayer.getUUID());
-            if (lastSyncedToPlayers.contains(serverPlayer.getUUID())) {
-                sendPacket(serverPlayer, partialUpdate);
-            } else {
-                sendPacket(serverPlayer, fullUpdate);
+    private void sync(SyncScheduler scheduler) {
+        List<ServerPlayer> watchers = scheduler.getWatchers(new ChunkPos(worldPosition));
+        if (watchers.isEmpty())
+            return;
+
+        // Low priority data slots wait while any watcher's connection is saturated.
+        boolean deferLowPriority = false;
+        for (ServerPlayer serverPlayer : watchers) {
+            if (CoreNetwork.isSaturated(serverPlayer)) {
+                deferLowPriority = true;
+                break;
             }
-        });
-        lastSyncedToPlayers.clear();
-        lastSyncedToPlayers.addAll(currentlyTracking);
+        }
+
+        byte[] partialUpdate = createUpdateData(false, SyncMode.WORLD, deferLowPriority);
+
+        // Try again next tick if the sync rate or budget held anything back.
+        if (hasDeferredDataSlots) {
+            requestSync();
+        }
+
+        if (partialUpdate == null)
+            return;
+
+        if (SyncStatistics.isEnabled()) {
+            SyncStatistics.recordUpdate(getType(), SyncMode.WORLD, partialUpdate.length, watchers.size());
+        }
+
+        for (ServerPlayer serverPlayer : watchers) {
+            CoreNetwork.queueBlockEntityUpdate(serverPlayer, worldPosition, partialUpdate);
+        }
     }
 
     public void sendPacket(ServerPlayer player, @Nullable Packet<?> packet) {
@@ -173,15 +404,6 @@ public class EnderBlockEntity extends BlockEntity {
             player.connection.send(packet);
     }
 
-    /**
-     * never call this on client
-     * @return all ServerPlayers tracking this BlockEntity
-     */
-    @UseOnly(LogicalSide.SERVER)
-    private List<ServerPlayer> getTrackingPlayers() {
-        return ((ServerChunkCache)level.getChunkSource()).chunkMap.getPlayers(new ChunkPos(worldPosition), false);
-    }
-
     public List<EnderDataSlot<?>> getDataSlots() {
         return dataSlots;
     }
@@ -192,6 +414,18 @@ public class EnderBlockEntity extends BlockEntity {
 
     // endregion
 
+    // region Serialization
+
+    @Override
+    protected void saveAdditional(CompoundTag pTag) {
+        super.saveAdditional(pTag);
+        if (level instanceof ServerLevel serverLevel) {
+            SaveTracker.onBlockEntityWritten(serverLevel);
+        }
+    }
+
+    // endregion
+
     // region Capabilities
 
     /**
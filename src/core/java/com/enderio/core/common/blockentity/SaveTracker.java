@@ -0,0 +1,46 @@
+package com.enderio.core.common.blockentity;
+
+import com.enderio.core.EnderCore;
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.Level;
+import net.minecraftforge.event.level.LevelEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+
+/**
+ * Counts how many {@link EnderBlockEntity}s are written to disk per level.
+ * Block entities are only written when their chunk was marked unsaved, so this shows whether idle machines stay clean.
+ */
+@Mod.EventBusSubscriber(modid = EnderCore.MODID)
+public class SaveTracker {
+    private static final Object2IntMap<Level> WRITTEN = new Object2IntOpenHashMap<>();
+    private static final Object2IntMap<Level> WRITTEN_LAST_SAVE = new Object2IntOpenHashMap<>();
+
+    static void onBlockEntityWritten(ServerLevel level) {
+        WRITTEN.mergeInt(level, 1, Integer::sum);
+    }
+
+    /**
+     * Get the number of block entities written in the level between the last two saves, including chunks saved when they were unloaded.
+     */
+    public static int getWrittenLastSave(ServerLevel level) {
+        return WRITTEN_LAST_SAVE.getInt(level);
+    }
+
+    @SubscribeEvent
+    public static void onLevelSave(LevelEvent.Save event) {
+        if (event.getLevel() instanceof ServerLevel level) {
+            int written = WRITTEN.removeInt(level);
+            WRITTEN_LAST_SAVE.put(level, written);
+            EnderCore.LOGGER.debug("Wrote {} block entities in {} since the last save", written, level.dimension().location());
+        }
+    }
+
+    @SubscribeEvent
+    public static void onLevelUnload(LevelEvent.Unload event) {
+        WRITTEN.removeInt(event.getLevel());
+        WRITTEN_LAST_SAVE.removeInt(event.getLevel());
+    }
+}
@@ -0,0 +1,181 @@
+package com.enderio.core.common.blockentity;
+
+import com.enderio.core.EnderCore;
+import com.enderio.core.common.network.CoreNetwork;
+import com.enderio.core.common.sync.SyncMode;
+import com.enderio.core.common.sync.SyncStatistics;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.entity.BlockEntity;
+import net.minecraft.world.level.chunk.LevelChunk;
+import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.event.level.ChunkWatchEvent;
+import net.minecraftforge.event.level.LevelEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-level queue of block entities that requested a sync, and index of the players watching each chunk.
+ * The queue is flushed once at the end of each level tick, so block entities that did not change are never visited.
+ * Updates are sent in one packet per chunk and player. Full snapshots are only sent when a player starts watching a chunk.
+ * They are queued per player and sent within the player's byte budget, see {@link CoreNetwork#isSaturated}, so entering a dense area doesn't send everything in one tick.
+ * The flush runs in its own profiler section ("enderio_sync").
+ */
+@Mod.EventBusSubscriber(modid = EnderCore.MODID)
+public class SyncScheduler {
+    private static final Map<Level, SyncScheduler> SCHEDULERS = new HashMap<>();
+
+    private List<EnderBlockEntity> queued = new ArrayList<>();
+    private List<EnderBlockEntity> flushing = new ArrayList<>();
+
+    /**
+     * Players watching each chunk, kept up to date by chunk watch events.
+     */
+    private final Long2ObjectMap<List<ServerPlayer>> watchers = new Long2ObjectOpenHashMap<>();
+
+    /**
+     * Chunks each player started watching and was not sent a full snapshot of yet.
+     */
+    private final Map<ServerPlayer, ArrayDeque<ChunkPos>> pendingSnapshots = new HashMap<>();
+
+    private final ServerLevel level;
+
+    private SyncScheduler(ServerLevel level) {
+        this.level = level;
+    }
+
+    public static SyncScheduler get(ServerLevel level) {
+        return SCHEDULERS.computeIfAbsent(level, l -> new SyncScheduler(level));
+    }
+
+    /**
+     * Queue a block entity to be synced at the end of this tick.
+     * Use {@link EnderBlockEntity#requestSync()} instead, which makes sure it is only queued once.
+     */
+    void queue(EnderBlockEntity blockEntity) {
+        queued.add(blockEntity);
+    }
+
+    private void flush() {
+        // Swap the lists, so block entities requesting a sync while we flush are handled next tick.
+        List<EnderBlockEntity> toSync = queued;
+        queued = flushing;
+        flushing = toSync;
+
+        for (EnderBlockEntity blockEntity : toSync) {
+            blockEntity.onSyncFlushed(this);
+        }
+        toSync.clear();
+
+        sendSnapshots();
+
+        // Send the collected updates, one packet per chunk and player.
+        CoreNetwork.flushBlockEntityUpdates();
+    }
+
+    @SubscribeEvent
+    public static void onLevelTick(TickEvent.LevelTickEvent event) {
+        if (event.phase == TickEvent.Phase.END && event.level instanceof ServerLevel level) {
+            SyncScheduler scheduler = SCHEDULERS.get(level);
+            if (scheduler != null) {
+                level.getProfiler().push("enderio_sync");
+                scheduler.flush();
+                level.getProfiler().pop();
+            }
+        }
+    }
+
+    /**
+     * Get the players watching the chunk.
+     */
+    public List<ServerPlayer> getWatchers(ChunkPos chunkPos) {
+        List<ServerPlayer> chunkWatchers = watchers.get(chunkPos.toLong());
+        return chunkWatchers != null ? chunkWatchers : List.of();
+    }
+
+    @SubscribeEvent
+    public static void onChunkWatch(ChunkWatchEvent.Watch event) {
+        SyncScheduler scheduler = get(event.getLevel());
+        ChunkPos chunkPos = event.getPos();
+        scheduler.watchers.computeIfAbsent(chunkPos.toLong(), p -> new ArrayList<>()).add(event.getPlayer());
+
+        // The player started watching, send a full snapshot of every block entity in this chunk when the budget allows.
+        scheduler.pendingSnapshots.computeIfAbsent(event.getPlayer(), p -> new ArrayDeque<>()).add(chunkPos);
+    }
+
+    /**
+     * Send the pending snapshots of each player until the player's byte budget is used up.
+     */
+    private void sendSnapshots() {
+        Iterator<Map.Entry<ServerPlayer, ArrayDeque<ChunkPos>>> iterator = pendingSnapshots.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<ServerPlayer, ArrayDeque<ChunkPos>> entry = iterator.next();
+            ServerPlayer player = entry.getKey();
+            ArrayDeque<ChunkPos> chunks = entry.getValue();
+            if (player.hasDisconnected()) {
+                iterator.remove();
+                continue;
+            }
+
+            while (!chunks.isEmpty() && !CoreNetwork.isSaturated(player)) {
+                ChunkPos chunkPos = chunks.poll();
+                // Skip chunks the player stopped watching in the meantime.
+                if (getWatchers(chunkPos).contains(player)) {
+                    sendSnapshot(player, chunkPos);
+                }
+            }
+
+            if (chunks.isEmpty()) {
+                iterator.remove();
+            }
+        }
+    }
+
+    private void sendSnapshot(ServerPlayer player, ChunkPos chunkPos) {
+        LevelChunk chunk = level.getChunkSource().getChunkNow(chunkPos.x, chunkPos.z);
+        if (chunk != null) {
+            for (BlockEntity blockEntity : chunk.getBlockEntities().values()) {
+                if (blockEntity instanceof EnderBlockEntity enderBlockEntity) {
+                    byte[] fullUpdate = enderBlockEntity.createUpdateData(true, SyncMode.WORLD, false);
+                    if (fullUpdate != null) {
+                        if (SyncStatistics.isEnabled()) {
+                            SyncStatistics.recordUpdate(enderBlockEntity.getType(), SyncMode.WORLD, fullUpdate.length, 1);
+                        }
+                        CoreNetwork.queueBlockEntityUpdate(player, enderBlockEntity.getBlockPos(), fullUpdate);
+                    }
+                }
+            }
+        }
+    }
+
+    @SubscribeEvent
+    public static void onChunkUnWatch(ChunkWatchEvent.UnWatch event) {
+        SyncScheduler scheduler = SCHEDULERS.get(event.getLevel());
+        if (scheduler != null) {
+            long chunkPos = event.getPos().toLong();
+            List<ServerPlayer> chunkWatchers = scheduler.watchers.get(chunkPos);
+            if (chunkWatchers != null) {
+                chunkWatchers.remove(event.getPlayer());
+                if (chunkWatchers.isEmpty()) {
+                    scheduler.watchers.remove(chunkPos);
+                }
+            }
+        }
+    }
+
+    @SubscribeEvent
+    public static void onLevelUnload(LevelEvent.Unload event) {
+        SCHEDULERS.remove(event.getLevel());
+    }
+}
@@ -0,0 +1,87 @@
+package com.enderio.core.common.command;
+
+import com.enderio.core.EnderCore;
+import com.enderio.core.common.sync.SyncStatistics;
+import com.mojang.brigadier.arguments.IntegerArgumentType;
+import net.minecraft.commands.CommandSourceStack;
+import net.minecraft.commands.Commands;
+import net.minecraft.network.chat.Component;
+import net.minecraftforge.event.RegisterCommandsEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+import net.minecraftforge.fml.loading.FMLPaths;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * /enderio syncstats start|stop|show [seconds]|dump [seconds]
+ * Controls {@link SyncStatistics}. Dumps are written to the debug folder of the game directory.
+ */
+@Mod.EventBusSubscriber(modid = EnderCore.MODID)
+public class SyncStatisticsCommand {
+    /**
+     * Lines per section shown in chat. Dumps contain every line.
+     */
+    private static final int CHAT_LIMIT = 5;
+
+    @SubscribeEvent
+    public static void register(RegisterCommandsEvent event) {
+        event.getDispatcher().register(Commands.literal("enderio")
+            .then(Commands.literal("syncstats")
+                .requires(source -> source.hasPermission(2))
+                .then(Commands.literal("start").executes(context -> setEnabled(context.getSource(), true)))
+                .then(Commands.literal("stop").executes(context -> setEnabled(context.getSource(), false)))
+                .then(Commands.literal("show")
+                    .executes(context -> show(context.getSource(), SyncStatistics.MAX_WINDOW_SECONDS))
+                    .then(Commands.argument("seconds", IntegerArgumentType.integer(1, SyncStatistics.MAX_WINDOW_SECONDS))
+                        .executes(context -> show(context.getSource(), IntegerArgumentType.getInteger(context, "seconds")))))
+                .then(Commands.literal("dump")
+                    .executes(context -> dump(context.getSource(), SyncStatistics.MAX_WINDOW_SECONDS))
+                    .then(Commands.argument("seconds", IntegerArgumentType.integer(1, SyncStatistics.MAX_WINDOW_SECONDS))
+                        .executes(context -> dump(context.getSource(), IntegerArgumentType.getInteger(context, "seconds")))))));
+    }
+
+    private static int setEnabled(CommandSourceStack source, boolean enabled) {
+        SyncStatistics.setEnabled(enabled);
+        source.sendSuccess(Component.literal(enabled ? "Started recording sync statistics" : "Stopped recording sync statistics"), true);
+        return 1;
+    }
+
+    private static int show(CommandSourceStack source, int seconds) {
+        if (!SyncStatistics.isEnabled()) {
+            source.sendFailure(Component.literal("Sync statistics are not being recorded, use /enderio syncstats start"));
+            return 0;
+        }
+
+        for (String line : SyncStatistics.report(seconds, CHAT_LIMIT)) {
+            source.sendSuccess(Component.literal(line), false);
+        }
+        return 1;
+    }
+
+    private static int dump(CommandSourceStack source, int seconds) {
+        if (!SyncStatistics.isEnabled()) {
+            source.sendFailure(Component.literal("Sync statistics are not being recorded, use /enderio syncstats start"));
+            return 0;
+        }
+
+        List<String> lines = SyncStatistics.report(seconds, Integer.MAX_VALUE);
+        Path path = FMLPaths.GAMEDIR.get().resolve("debug").resolve("enderio-sync-" + new SimpleDateFormat("yyyy-MM-dd_HH.mm.ss").format(new Date()) + ".txt");
+        try {
+            Files.createDirectories(path.getParent());
+            Files.write(path, lines);
+        } catch (IOException e) {
+            EnderCore.LOGGER.error("Failed to write sync statistics", e);
+            source.sendFailure(Component.literal("Failed to write sync statistics: " + e.getMessage()));
+            return 0;
+        }
+
+        source.sendSuccess(Component.literal("Wrote sync statistics to " + path), false);
+        return 1;
+    }
+}
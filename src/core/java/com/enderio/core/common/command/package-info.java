@@ -0,0 +1,5 @@
+@javax.annotation.ParametersAreNonnullByDefault
+@net.minecraft.MethodsReturnNonnullByDefault
+@com.tterrag.registrate.util.nullness.FieldsAreNonnullByDefault
+
+package com.enderio.core.common.command;
\ No newline at end of file
@@ -5,8 +5,8 @@ import com.enderio.core.common.network.CoreNetwork;
 import com.enderio.core.common.network.SyncClientToServerMenuPacket;
 import com.enderio.core.common.sync.EnderDataSlot;
 import com.enderio.core.common.sync.SyncMode;
-import net.minecraft.nbt.CompoundTag;
-import net.minecraft.nbt.ListTag;
+import io.netty.buffer.Unpooled;
+import net.minecraft.network.FriendlyByteBuf;
 import net.minecraft.server.level.ServerPlayer;
 import net.minecraft.world.entity.player.Inventory;
 import net.minecraft.world.inventory.AbstractContainerMenu;
@@ -15,8 +15,8 @@ import net.minecraft.world.inventory.Slot;
 
 import org.jetbrains.annotations.Nullable;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.List;
-import java.util.Optional;
 
 public abstract class SyncedMenu<T extends EnderBlockEntity> extends AbstractContainerMenu {
 
@@ -26,6 +26,11 @@ public abstract class SyncedMenu<T extends EnderBlockEntity> extends AbstractCon
 
     private final List<EnderDataSlot<?>> clientToServerSlots = new ArrayList<>();
 
+    /**
+     * Indices of the client to server slots edited since the last client tick.
+     */
+    private final BitSet pendingEdits = new BitSet();
+
     protected SyncedMenu(@Nullable T blockEntity, Inventory inventory, @Nullable MenuType<?> pMenuType, int pContainerId) {
         super(pMenuType, pContainerId);
         this.blockEntity = blockEntity;
@@ -53,24 +58,36 @@ public abstract class SyncedMenu<T extends EnderBlockEntity> extends AbstractCon
 
     private void sync(boolean fullSync) {
         if (inventory.player instanceof ServerPlayer player && blockEntity != null) {
-            blockEntity.sendPacket(player, blockEntity.createUpdatePacket(fullSync, SyncMode.GUI));
+            blockEntity.sendPacket(player, blockEntity.createUpdatePacket(fullSync, SyncMode.GUI, CoreNetwork.isSaturated(player)));
         }
     }
 
+    /**
+     * Submit an edit the player made in the GUI.
+     * Apply the edit to the client block entity first, the data slot's new value is sent to the server with the next client tick.
+     * Edits of the same data slot within one tick are merged, only the latest value is sent.
+     */
+    protected void submitEdit(EnderDataSlot<?> dataSlot) {
+        int index = clientToServerSlots.indexOf(dataSlot);
+        if (index < 0)
+            throw new IllegalArgumentException("Data slot is not synced from client to server");
+        pendingEdits.set(index);
+    }
+
     public void clientTick() {
-        ListTag listNBT = new ListTag();
-        for (int i = 0; i < clientToServerSlots.size(); i++) {
-            Optional<CompoundTag> optionalNBT = clientToServerSlots.get(i).toOptionalNBT();
-
-            if (optionalNBT.isPresent()) {
-                CompoundTag elementNBT = optionalNBT.get();
-                elementNBT.putInt("dataSlotIndex", i);
-                listNBT.add(elementNBT);
-            }
-        }
-        if (!listNBT.isEmpty()) {
-            CoreNetwork.sendToServer(new SyncClientToServerMenuPacket(containerId, listNBT));
+        if (pendingEdits.isEmpty())
+            return;
+
+        FriendlyByteBuf buf = new FriendlyByteBuf(Unpooled.buffer());
+        for (int i = pendingEdits.nextSetBit(0); i >= 0; i = pendingEdits.nextSetBit(i + 1)) {
+            buf.writeVarInt(i);
+            clientToServerSlots.get(i).toBuffer(buf);
         }
+        pendingEdits.clear();
+
+        byte[] data = new byte[buf.readableBytes()];
+        buf.readBytes(data);
+        CoreNetwork.sendToServer(new SyncClientToServerMenuPacket(containerId, data));
     }
 
     @Nullable
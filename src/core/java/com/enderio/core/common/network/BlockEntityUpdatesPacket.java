@@ -0,0 +1,93 @@
+package com.enderio.core.common.network;
+
+import com.enderio.core.common.blockentity.EnderBlockEntity;
+import io.netty.buffer.Unpooled;
+import net.minecraft.client.Minecraft;
+import net.minecraft.core.BlockPos;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraftforge.network.NetworkDirection;
+import net.minecraftforge.network.NetworkEvent;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Data slot updates for all {@link EnderBlockEntity}s of one chunk.
+ * Positions are sent relative to the chunk origin.
+ */
+public class BlockEntityUpdatesPacket implements Packet {
+
+    private final ChunkPos chunkPos;
+
+    private final List<BlockPos> positions = new ArrayList<>();
+    private final List<byte[]> updates = new ArrayList<>();
+
+    public BlockEntityUpdatesPacket(ChunkPos chunkPos) {
+        this.chunkPos = chunkPos;
+    }
+
+    public BlockEntityUpdatesPacket(FriendlyByteBuf buf) {
+        chunkPos = buf.readChunkPos();
+        int numUpdates = buf.readVarInt();
+        for (int i = 0; i < numUpdates; i++) {
+            int packedXZ = buf.readUnsignedByte();
+            int y = buf.readShort();
+            positions.add(new BlockPos(chunkPos.getBlockX(packedXZ >> 4), y, chunkPos.getBlockZ(packedXZ & 15)));
+            updates.add(buf.readByteArray());
+        }
+    }
+
+    public void write(FriendlyByteBuf buf) {
+        buf.writeChunkPos(chunkPos);
+        buf.writeVarInt(positions.size());
+        for (int i = 0; i < positions.size(); i++) {
+            BlockPos pos = positions.get(i);
+            buf.writeByte((pos.getX() & 15) << 4 | (pos.getZ() & 15));
+            buf.writeShort(pos.getY());
+            buf.writeByteArray(updates.get(i));
+        }
+    }
+
+    /**
+     * Add the data slot stream of the block entity at the given position.
+     * @param data a stream written by {@link EnderBlockEntity#writeDataSlots}
+     */
+    public void add(BlockPos pos, byte[] data) {
+        positions.add(pos);
+        updates.add(data);
+    }
+
+    @Override
+    public boolean isValid(NetworkEvent.Context context) {
+        return context.getDirection() == NetworkDirection.PLAY_TO_CLIENT;
+    }
+
+    @Override
+    public void handle(NetworkEvent.Context context) {
+        for (int i = 0; i < positions.size(); i++) {
+            if (Minecraft.getInstance().level.getBlockEntity(positions.get(i)) instanceof EnderBlockEntity blockEntity) {
+                blockEntity.readDataSlots(new FriendlyByteBuf(Unpooled.wrappedBuffer(updates.get(i))));
+            }
+        }
+    }
+
+    public static class Handler extends PacketHandler<BlockEntityUpdatesPacket> {
+
+        @Override
+        public BlockEntityUpdatesPacket fromNetwork(FriendlyByteBuf buf) {
+            return new BlockEntityUpdatesPacket(buf);
+        }
+
+        @Override
+        public Optional<NetworkDirection> getDirection() {
+            return Optional.of(NetworkDirection.PLAY_TO_CLIENT);
+        }
+
+        @Override
+        public void toNetwork(BlockEntityUpdatesPacket packet, FriendlyByteBuf buf) {
+            packet.write(buf);
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.enderio.core.common.network;
+
+import io.netty.buffer.Unpooled;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraftforge.network.NetworkDirection;
+import net.minecraftforge.network.NetworkEvent;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * All EnderIO packets sent to a player within one tick, framed as a single payload.
+ * Each packet is written as its varint id followed by its own encoding, and handled in the order it was queued.
+ * Packets are encoded into the bundle as they are added, so sending it only copies the bytes.
+ */
+public class BundlePacket implements Packet {
+
+    /**
+     * The decoded packets, on the receiving side.
+     */
+    private final List<Packet> packets;
+
+    /**
+     * The encoded packets, on the sending side.
+     */
+    @Nullable
+    private final FriendlyByteBuf payload;
+
+    private int count;
+
+    public BundlePacket() {
+        packets = List.of();
+        payload = new FriendlyByteBuf(Unpooled.buffer());
+    }
+
+    public BundlePacket(FriendlyByteBuf buf) {
+        int numPackets = buf.readVarInt();
+        packets = new ArrayList<>(numPackets);
+        for (int i = 0; i < numPackets; i++) {
+            packets.add(CoreNetwork.getHandler(buf.readVarInt()).fromNetwork(buf));
+        }
+        payload = null;
+    }
+
+    /**
+     * Encode the packet into the bundle.
+     * @return the size of the packet's own encoding, without its id
+     */
+    public <P extends Packet> int add(P packet) {
+        FriendlyByteBuf buf = getPayload();
+        buf.writeVarInt(CoreNetwork.getId(packet.getClass()));
+        int start = buf.writerIndex();
+        CoreNetwork.getHandler(packet).toNetwork(packet, buf);
+        count++;
+        return buf.writerIndex() - start;
+    }
+
+    /**
+     * Get the number of packets in the bundle.
+     */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * Get the size of the encoded packets, including their ids.
+     */
+    public int getEncodedSize() {
+        return getPayload().readableBytes();
+    }
+
+    /**
+     * Move the last packet added into a new bundle, without encoding it again.
+     * @param start the encoded size of the bundle before the packet was added
+     */
+    public BundlePacket splitLast(int start) {
+        FriendlyByteBuf buf = getPayload();
+        BundlePacket next = new BundlePacket();
+        next.getPayload().writeBytes(buf, start, buf.writerIndex() - start);
+        next.count = 1;
+        buf.writerIndex(start);
+        count--;
+        return next;
+    }
+
+    /**
+     * Release the encoded packets once the bundle was sent.
+     */
+    public void release() {
+        getPayload().release();
+    }
+
+    private FriendlyByteBuf getPayload() {
+        if (payload == null)
+            throw new IllegalStateException("Received bundles have no payload");
+        return payload;
+    }
+
+    public void write(FriendlyByteBuf buf) {
+        FriendlyByteBuf encoded = getPayload();
+        buf.writeVarInt(count);
+        buf.writeBytes(encoded, encoded.readerIndex(), encoded.readableBytes());
+    }
+
+    @Override
+    public boolean isValid(NetworkEvent.Context context) {
+        return context.getDirection() == NetworkDirection.PLAY_TO_CLIENT;
+    }
+
+    @Override
+    public void handle(NetworkEvent.Context context) {
+        for (Packet packet : packets) {
+            if (packet.isValid(context)) {
+                packet.handle(context);
+            } else {
+                Packet.logPacketError(context, "didn't pass check and is invalid", packet);
+            }
+        }
+    }
+
+    public static class Handler extends PacketHandler<BundlePacket> {
+
+        @Override
+        public BundlePacket fromNetwork(FriendlyByteBuf buf) {
+            return new BundlePacket(buf);
+        }
+
+        @Override
+        public Optional<NetworkDirection> getDirection() {
+            return Optional.of(NetworkDirection.PLAY_TO_CLIENT);
+        }
+
+        @Override
+        public void toNetwork(BundlePacket packet, FriendlyByteBuf buf) {
+            packet.write(buf);
+        }
+    }
+}
@@ -1,18 +1,72 @@
 package com.enderio.core.common.network;
 
+import com.enderio.core.EnderCore;
+import com.enderio.core.common.sync.SyncStatistics;
+import io.netty.buffer.Unpooled;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.network.FriendlyByteBuf;
 import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.level.ServerLevel;
 import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.level.ChunkPos;
 import net.minecraft.world.level.chunk.LevelChunk;
+import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
 import net.minecraftforge.network.NetworkRegistry;
 import net.minecraftforge.network.PacketDistributor;
 import net.minecraftforge.network.simple.SimpleChannel;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Mod.EventBusSubscriber(modid = EnderCore.MODID)
 public class CoreNetwork {
-    private static final String PROTOCOL_VERSION = "1.0";
+    private static final String PROTOCOL_VERSION = "1.1";
     private static SimpleChannel CHANNEL;
 
     private static int packetId = 0;
 
+    private static final Map<ServerPlayer, Long2ObjectMap<BlockEntityUpdatesPacket>> BLOCK_ENTITY_UPDATES = new HashMap<>();
+
+    /**
+     * The number of block entity update bytes a player may be sent per tick before low priority data slots are held back.
+     */
+    private static final int PLAYER_BYTE_BUDGET = 16 * 1024;
+
+    private static final Object2IntMap<ServerPlayer> QUEUED_BYTES = new Object2IntOpenHashMap<>();
+
+    /**
+     * Packet handlers, indexed by packet id.
+     */
+    private static final List<Packet.PacketHandler<?>> HANDLERS = new ArrayList<>();
+
+    /**
+     * Packet ids by packet class. Classes that were not registered, like subclasses, map to -1.
+     */
+    private static final Object2IntMap<Class<?>> PACKET_IDS = new Object2IntOpenHashMap<>();
+
+    static {
+        PACKET_IDS.defaultReturnValue(-1);
+    }
+
+    /**
+     * Packets queued per player, sent as {@link BundlePacket}s at the end of the server tick.
+     */
+    private static final Map<ServerPlayer, List<Packet>> PENDING_PACKETS = new HashMap<>();
+
+    /**
+     * The most bytes of packets put in one bundle, well below the 1 MiB limit of custom payloads.
+     */
+    private static final int MAX_BUNDLE_BYTES = 512 * 1024;
+
     /**
      * **MUST** be called by EnderIO before any other networking code.
      */
@@ -29,26 +83,147 @@ public class CoreNetwork {
         registerPacket(new ClientToServerMenuPacket.Handler<>(SyncClientToServerMenuPacket::new), SyncClientToServerMenuPacket.class);
         registerPacket(new EmitParticlePacket.Handler(), EmitParticlePacket.class);
         registerPacket(new EmitParticlesPacket.Handler(), EmitParticlesPacket.class);
+        registerPacket(new BlockEntityUpdatesPacket.Handler(), BlockEntityUpdatesPacket.class);
+        registerPacket(new BundlePacket.Handler(), BundlePacket.class);
+    }
+
+    /**
+     * Queue a block entity's data slot stream for the player.
+     * All updates of one chunk are sent as a single packet on the next {@link #flushBlockEntityUpdates()}.
+     */
+    public static void queueBlockEntityUpdate(ServerPlayer player, BlockPos pos, byte[] data) {
+        long chunkPos = ChunkPos.asLong(SectionPos.blockToSectionCoord(pos.getX()), SectionPos.blockToSectionCoord(pos.getZ()));
+        BLOCK_ENTITY_UPDATES
+            .computeIfAbsent(player, p -> new Long2ObjectOpenHashMap<>())
+            .computeIfAbsent(chunkPos, p -> new BlockEntityUpdatesPacket(new ChunkPos(p)))
+            .add(pos, data);
+        QUEUED_BYTES.mergeInt(player, data.length, Integer::sum);
+    }
+
+    /**
+     * Whether the player's connection can't keep up, either because it stopped accepting writes or because this tick's byte budget is used up.
+     * Low priority data slots should wait while this is true.
+     */
+    public static boolean isSaturated(ServerPlayer player) {
+        return !player.connection.getConnection().channel().isWritable()
+            || QUEUED_BYTES.getInt(player) > PLAYER_BYTE_BUDGET;
+    }
+
+    /**
+     * Send all queued block entity updates.
+     */
+    public static void flushBlockEntityUpdates() {
+        for (Map.Entry<ServerPlayer, Long2ObjectMap<BlockEntityUpdatesPacket>> entry : BLOCK_ENTITY_UPDATES.entrySet()) {
+            for (BlockEntityUpdatesPacket packet : entry.getValue().values()) {
+                sendToPlayer(entry.getKey(), packet);
+            }
+        }
+        BLOCK_ENTITY_UPDATES.clear();
+        QUEUED_BYTES.clear();
     }
 
     public static <P extends Packet> void sendToServer(P packet) {
         CHANNEL.sendToServer(packet);
     }
 
+    /**
+     * Queue a packet for the player. It is sent together with all other packets queued for the player this tick.
+     */
     public static <P extends Packet> void sendToPlayer(ServerPlayer player, P packet) {
-        send(PacketDistributor.PLAYER.with(() -> player), packet);
+        PENDING_PACKETS.computeIfAbsent(player, p -> new ArrayList<>()).add(packet);
     }
 
+    /**
+     * Queue a packet for every player tracking the chunk.
+     */
     public static <P extends Packet> void sendToTracking(LevelChunk chunk, P packet) {
-        send(PacketDistributor.TRACKING_CHUNK.with(() -> chunk), packet);
+        for (ServerPlayer player : ((ServerLevel) chunk.getLevel()).getChunkSource().chunkMap.getPlayers(chunk.getPos(), false)) {
+            sendToPlayer(player, packet);
+        }
+    }
+
+    @SubscribeEvent
+    public static void onServerTick(TickEvent.ServerTickEvent event) {
+        if (event.phase == TickEvent.Phase.END && !PENDING_PACKETS.isEmpty()) {
+            flushPendingPackets();
+        }
+    }
+
+    /**
+     * Send the queued packets, bundled into as few payloads per player as fit within {@link #MAX_BUNDLE_BYTES}.
+     * Each packet is encoded once, straight into its bundle, and counted for {@link SyncStatistics} then.
+     */
+    private static void flushPendingPackets() {
+        boolean recordStatistics = SyncStatistics.isEnabled();
+        for (Map.Entry<ServerPlayer, List<Packet>> entry : PENDING_PACKETS.entrySet()) {
+            ServerPlayer player = entry.getKey();
+            if (player.hasDisconnected())
+                continue;
+
+            BundlePacket bundle = new BundlePacket();
+            for (Packet packet : entry.getValue()) {
+                int start = bundle.getEncodedSize();
+                int bytes = bundle.add(packet);
+                if (recordStatistics) {
+                    SyncStatistics.recordPacket(packet.getClass(), bytes);
+                }
+
+                // Move a packet that overflows the bundle into the next one.
+                if (bundle.size() > 1 && bundle.getEncodedSize() > MAX_BUNDLE_BYTES) {
+                    BundlePacket next = bundle.splitLast(start);
+                    sendBundle(player, bundle);
+                    bundle = next;
+                }
+            }
+            sendBundle(player, bundle);
+        }
+        PENDING_PACKETS.clear();
+    }
+
+    private static void sendBundle(ServerPlayer player, BundlePacket bundle) {
+        // The channel encodes the packet while sending, so the payload can be released right after.
+        CHANNEL.send(PacketDistributor.PLAYER.with(() -> player), bundle);
+        bundle.release();
     }
 
     public static <P extends Packet> void send(PacketDistributor.PacketTarget target, P packet) {
+        if (SyncStatistics.isEnabled()) {
+            recordPacket(packet);
+        }
         CHANNEL.send(target, packet);
     }
 
     public static <P extends Packet> void registerPacket(Packet.PacketHandler<P> handler, Class<P> clazz) {
-        CHANNEL.registerMessage(id(), clazz, handler::toNetwork, handler::fromNetwork, handler, handler.getDirection());
+        int id = id();
+        CHANNEL.registerMessage(id, clazz, handler::toNetwork, handler::fromNetwork, handler, handler.getDirection());
+        HANDLERS.add(handler);
+        PACKET_IDS.put(clazz, id);
+    }
+
+    static int getId(Class<?> clazz) {
+        int id = PACKET_IDS.getInt(clazz);
+        if (id < 0)
+            throw new IllegalArgumentException("Packet class " + clazz.getName() + " is not registered");
+        return id;
+    }
+
+    static Packet.PacketHandler<?> getHandler(int id) {
+        return HANDLERS.get(id);
+    }
+
+    @SuppressWarnings("unchecked")
+    static <P extends Packet> Packet.PacketHandler<P> getHandler(P packet) {
+        return (Packet.PacketHandler<P>) HANDLERS.get(getId(packet.getClass()));
+    }
+
+    /**
+     * Encode the packet a second time to count its size. Only done while statistics are recorded.
+     */
+    private static <P extends Packet> void recordPacket(P packet) {
+        FriendlyByteBuf buf = new FriendlyByteBuf(Unpooled.buffer());
+        getHandler(packet).toNetwork(packet, buf);
+        SyncStatistics.recordPacket(packet.getClass(), buf.readableBytes());
+        buf.release();
     }
 
     private static int id() {
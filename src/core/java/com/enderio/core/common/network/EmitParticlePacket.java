@@ -2,12 +2,12 @@ package com.enderio.core.common.network;
 
 import net.minecraft.client.Minecraft;
 import net.minecraft.core.BlockPos;
+import net.minecraft.core.Registry;
 import net.minecraft.core.particles.ParticleOptions;
 import net.minecraft.core.particles.ParticleType;
 import net.minecraft.network.FriendlyByteBuf;
 import net.minecraftforge.network.NetworkDirection;
 import net.minecraftforge.network.NetworkEvent;
-import net.minecraftforge.registries.ForgeRegistries;
 
 import java.util.Objects;
 import java.util.Optional;
@@ -35,7 +35,8 @@ public class EmitParticlePacket implements Packet {
         x = buf.readDouble();
         y = buf.readDouble();
         z = buf.readDouble();
-        particleOptions = readParticle(buf, Objects.requireNonNull(ForgeRegistries.PARTICLE_TYPES.getValue(buf.readResourceLocation())));
+        // The particle type is sent as its numeric registry id, which is synced to the client.
+        particleOptions = readParticle(buf, Objects.requireNonNull(buf.readById(Registry.PARTICLE_TYPE)));
     }
 
     private <T extends ParticleOptions> T readParticle(FriendlyByteBuf buf, ParticleType<T> type) {
@@ -51,7 +52,7 @@ public class EmitParticlePacket implements Packet {
         writeInto.writeDouble(x);
         writeInto.writeDouble(y);
         writeInto.writeDouble(z);
-        writeInto.writeResourceLocation(Objects.requireNonNull(ForgeRegistries.PARTICLE_TYPES.getKey(particleOptions.getType())));
+        writeInto.writeId(Registry.PARTICLE_TYPE, particleOptions.getType());
         particleOptions.writeToNetwork(writeInto);
     }
 
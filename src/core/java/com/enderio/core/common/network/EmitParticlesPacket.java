@@ -18,14 +18,14 @@ public class EmitParticlesPacket implements Packet {
     }
 
     public EmitParticlesPacket(FriendlyByteBuf buf) {
-        int numParticles = buf.readInt();
+        int numParticles = buf.readVarInt();
         for (int i = 0; i < numParticles; i++) {
             particles.add(new EmitParticlePacket(buf));
         }
     }
 
     public void write(FriendlyByteBuf buf) {
-        buf.writeInt(particles.size());
+        buf.writeVarInt(particles.size());
         for (EmitParticlePacket particle : particles) {
             particle.write(buf);
         }
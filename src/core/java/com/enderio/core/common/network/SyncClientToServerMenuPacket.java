@@ -1,14 +1,11 @@
 package com.enderio.core.common.network;
 
+import com.enderio.core.common.blockentity.EnderBlockEntity;
 import com.enderio.core.common.menu.SyncedMenu;
 import com.enderio.core.common.sync.EnderDataSlot;
-import net.minecraft.nbt.CompoundTag;
-import net.minecraft.nbt.IntTag;
-import net.minecraft.nbt.ListTag;
-import net.minecraft.nbt.Tag;
+import io.netty.buffer.Unpooled;
 import net.minecraft.network.FriendlyByteBuf;
 import net.minecraftforge.network.NetworkEvent;
-import org.apache.commons.lang3.tuple.Pair;
 import org.apache.logging.log4j.LogManager;
 
 import java.util.ArrayList;
@@ -16,67 +13,62 @@ import java.util.List;
 
 public class SyncClientToServerMenuPacket extends ClientToServerMenuPacket<SyncedMenu> {
 
-    private final CompoundTag data;
+    /**
+     * A stream of data slot index and payload pairs.
+     */
+    private final byte[] data;
 
-    public SyncClientToServerMenuPacket(int containerID, ListTag list) {
+    public SyncClientToServerMenuPacket(int containerID, byte[] data) {
         super(SyncedMenu.class, containerID);
-        data = new CompoundTag();
-        data.put("list", list);
+        this.data = data;
     }
 
     public SyncClientToServerMenuPacket(FriendlyByteBuf buf) {
         super(SyncedMenu.class, buf);
-        this.data = buf.readNbt();
+        this.data = buf.readByteArray();
     }
 
     @Override
     protected void write(FriendlyByteBuf writeInto) {
         super.write(writeInto);
-        writeInto.writeNbt(data);
+        writeInto.writeByteArray(data);
     }
 
     @Override
     public void handle(NetworkEvent.Context context) {
-        ListTag list = data.getList("list", Tag.TAG_COMPOUND);
         List<EnderDataSlot<?>> clientToServerSlots = getMenu(context).getClientToServerSlots();
-        List<Pair<Integer, CompoundTag>> dataSlots = new ArrayList<>();
-        boolean encounteredError = false;
-        for (Tag tag: list) {
-            if (tag instanceof CompoundTag compound) {
-                Tag indexTag = compound.get("dataSlotIndex");
-                if (indexTag instanceof IntTag intTag) {
-                    int index = intTag.getAsInt();
-                    if (index >= 0 && index < clientToServerSlots.size()) {
-                        dataSlots.add(Pair.of(intTag.getAsInt(), compound));
-                    } else {
-                        encounteredError = true;
-                        Packet.logPacketError(context, "Index " + index + " is out of range for " + clientToServerSlots.size() + " dataslots", this);
-                    }
-                } else {
-                    encounteredError = true;
-                    if (indexTag == null) {
-                        Packet.logPacketError(context, "There is no IndexTag in (" + tag.getAsString() + ")", this);
-                    } else {
-                        Packet.logPacketError(context, "IndexTag is not an IntTag (" + indexTag.getAsString() + ")", this);
-                    }
+        FriendlyByteBuf buf = new FriendlyByteBuf(Unpooled.wrappedBuffer(data));
+
+        // Decode the whole stream first, so an invalid entry doesn't leave the earlier ones applied.
+        List<Runnable> changes = new ArrayList<>();
+        // The stream can't be resynchronized after an invalid entry, so stop reading on the first error.
+        while (buf.isReadable()) {
+            int index = -1;
+            try {
+                index = buf.readVarInt();
+                if (index < 0 || index >= clientToServerSlots.size()) {
+                    Packet.logPacketError(context, "Index " + index + " is out of range for " + clientToServerSlots.size() + " dataslots", this);
+                    handleWrongPlayer(context);
+                    return;
                 }
+                changes.add(clientToServerSlots.get(index).decodeBuffer(buf));
+            } catch (Exception e) {
+                Packet.logPacketError(context, "An exception has been caught during handling of dataslot " + index
+                    + " in menu " + getMenu(context).getClass(), this);
+                LogManager.getLogger().warn(e);
+                handleWrongPlayer(context);
+                return;
             }
         }
-        if (!encounteredError) {
-            for (Pair<Integer, CompoundTag> dataSlot : dataSlots) {
-                try {
-                    clientToServerSlots.get(dataSlot.getKey()).handleNBT(dataSlot.getRight());
-                } catch (Exception e) {
-                    Packet.logPacketError(context, "An exception has been caught during handling of dataslot " + dataSlot.getKey()
-                        + " with data " + dataSlot.getRight().getAsString()
-                        + " in menu " + getMenu(context).getClass(), this);
-                    LogManager.getLogger().warn(e);
-                    encounteredError = true;
-                }
-            }
+
+        for (Runnable change : changes) {
+            change.run();
         }
-        if (encounteredError) {
-            handleWrongPlayer(context);
+
+        // Persist the changes and pass them on to other players watching the block entity.
+        EnderBlockEntity blockEntity = getMenu(context).getBlockEntity();
+        if (blockEntity != null) {
+            blockEntity.setChanged();
         }
     }
 }
@@ -1,24 +1,53 @@
 package com.enderio.core.common.sync;
 
-import net.minecraft.nbt.CompoundTag;
+import net.minecraft.network.FriendlyByteBuf;
 
-import java.util.function.Consumer;
-import java.util.function.Supplier;
+import java.util.function.BooleanSupplier;
 
+/**
+ * Syncs a boolean without boxing it.
+ */
 public class BooleanDataSlot extends EnderDataSlot<Boolean> {
-    public BooleanDataSlot(Supplier<Boolean> getter, Consumer<Boolean> setter, SyncMode mode) {
-        super(getter, setter, mode);
+    private final BooleanSupplier getter;
+    private final BooleanConsumer setter;
+
+    private boolean previousValue;
+
+    public BooleanDataSlot(BooleanSupplier getter, BooleanConsumer setter, SyncMode mode) {
+        //I can put null here, because I override the only usages of the getter and setter
+        super(null, null, mode);
+        this.getter = getter;
+        this.setter = setter;
     }
 
     @Override
-    public CompoundTag toFullNBT() {
-        CompoundTag tag = new CompoundTag();
-        tag.putBoolean("value", getter().get());
-        return tag;
+    public boolean hasChanged() {
+        return getter.getAsBoolean() != previousValue;
     }
 
     @Override
-    protected Boolean fromNBT(CompoundTag nbt) {
-        return nbt.getBoolean("value");
+    public void toBuffer(FriendlyByteBuf buf) {
+        buf.writeBoolean(getter.getAsBoolean());
+    }
+
+    @Override
+    protected Boolean fromBuffer(FriendlyByteBuf buf) {
+        //I can return null here, because I override the only usage of this method
+        return null;
+    }
+
+    @Override
+    public Runnable decodeBuffer(FriendlyByteBuf buf) {
+        boolean value = buf.readBoolean();
+        return () -> setter.accept(value);
+    }
+
+    @Override
+    protected void updatePreviousValue() {
+        previousValue = getter.getAsBoolean();
+    }
+
+    public interface BooleanConsumer {
+        void accept(boolean value);
     }
 }
@@ -1,18 +1,26 @@
 package com.enderio.core.common.sync;
 
-import net.minecraft.nbt.CompoundTag;
+import net.minecraft.network.FriendlyByteBuf;
 
-import java.util.Optional;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
 
+/**
+ * A value that is synced between server and client.
+ * Values are written straight into a {@link FriendlyByteBuf}. Each slot keeps a copy of the value it has last sent, so it can decide whether it needs to be sent again.
+ */
 public abstract class EnderDataSlot<T> {
     private final Supplier<T> getter;
     private final Consumer<T> setter;
 
     private final SyncMode syncMode;
 
-    CompoundTag previousValue = new CompoundTag();
+    private SyncRate syncRate = SyncRate.ON_CHANGE;
+
+    /**
+     * The game time of the last partial update.
+     */
+    private long lastUpdateTime = Long.MIN_VALUE;
 
     public EnderDataSlot(Supplier<T> getter, Consumer<T> setter, SyncMode mode) {
         this.getter = getter;
@@ -24,28 +32,76 @@ public abstract class EnderDataSlot<T> {
         return syncMode;
     }
 
+    public SyncRate getSyncRate() {
+        return syncRate;
+    }
+
+    /**
+     * Limit how often this data slot sends partial updates.
+     */
+    public EnderDataSlot<T> withSyncRate(SyncRate syncRate) {
+        this.syncRate = syncRate;
+        return this;
+    }
+
+    /**
+     * @return whether the sync rate allows a partial update at the given game time
+     */
+    public boolean canUpdate(long gameTime) {
+        return gameTime - lastUpdateTime >= syncRate.getMinInterval();
+    }
+
+    /**
+     * Write the current value as a partial update sent at the given game time.
+     */
+    public void writeChanges(FriendlyByteBuf buf, long gameTime) {
+        writeChanges(buf);
+        lastUpdateTime = gameTime;
+    }
+
     protected Supplier<T> getter() {
         return getter;
     }
 
-    public Optional<CompoundTag> toOptionalNBT() {
-        CompoundTag newNBT = toFullNBT();
-        if (newNBT.equals(previousValue))
-            return Optional.empty();
-        //copy to prevent mismatched by adding the dataSlotIndex
-        previousValue = newNBT.copy();
-        return Optional.of(newNBT);
+    /**
+     * @return whether the current value differs from the value last written by {@link #writeChanges(FriendlyByteBuf)}
+     */
+    public abstract boolean hasChanged();
+
+    /**
+     * Write the current value and remember it as the previous value.
+     */
+    public void writeChanges(FriendlyByteBuf buf) {
+        toBuffer(buf);
+        updatePreviousValue();
     }
 
     /**
-     * Make sure to always retain a valid state, even when this method throws an Exception and only throw an Exception if invalid data is sent, as Clients can have full control over incoming data
-     * @param tag
+     * Read and apply a value.
      */
-    public void handleNBT(CompoundTag tag) {
-        setter.accept(fromNBT(tag));
+    public final void handleBuffer(FriendlyByteBuf buf) {
+        decodeBuffer(buf).run();
     }
 
-    public abstract CompoundTag toFullNBT();
+    /**
+     * Read and validate a value without applying it, so a packet can be checked as a whole before any of its values are applied.
+     * Only throw an Exception if invalid data is sent, as Clients can have full control over incoming data.
+     * @return an action that applies the value
+     */
+    public Runnable decodeBuffer(FriendlyByteBuf buf) {
+        T value = fromBuffer(buf);
+        return () -> setter.accept(value);
+    }
+
+    /**
+     * Write the current value without touching the previous value. This is used for full updates.
+     */
+    public abstract void toBuffer(FriendlyByteBuf buf);
 
-    protected abstract T fromNBT(CompoundTag nbt);
+    protected abstract T fromBuffer(FriendlyByteBuf buf);
+
+    /**
+     * Store the current value as the previous value.
+     */
+    protected abstract void updatePreviousValue();
 }
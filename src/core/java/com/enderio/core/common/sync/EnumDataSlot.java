@@ -1,25 +1,38 @@
 package com.enderio.core.common.sync;
 
-import net.minecraft.nbt.CompoundTag;
+import net.minecraft.network.FriendlyByteBuf;
 
 import java.util.function.Consumer;
 import java.util.function.Supplier;
 
 public class EnumDataSlot<T extends Enum<T>> extends EnderDataSlot<T> {
+    private int previousOrdinal = -1;
 
     public EnumDataSlot(Supplier<T> getter, Consumer<T> setter, SyncMode syncMode) {
         super(getter, setter, syncMode);
     }
 
     @Override
-    public CompoundTag toFullNBT() {
-        CompoundTag tag = new CompoundTag();
-        tag.putInt("ordinal", getter().get().ordinal());
-        return tag;
+    public boolean hasChanged() {
+        return getter().get().ordinal() != previousOrdinal;
     }
 
     @Override
-    protected T fromNBT(CompoundTag nbt) {
-        return getter().get().getDeclaringClass().getEnumConstants()[nbt.getInt("ordinal")];
+    public void toBuffer(FriendlyByteBuf buf) {
+        buf.writeVarInt(getter().get().ordinal());
+    }
+
+    @Override
+    protected T fromBuffer(FriendlyByteBuf buf) {
+        T[] values = getter().get().getDeclaringClass().getEnumConstants();
+        int ordinal = buf.readVarInt();
+        if (ordinal < 0 || ordinal >= values.length)
+            throw new IllegalArgumentException("Ordinal " + ordinal + " is out of range for " + values.length + " values");
+        return values[ordinal];
+    }
+
+    @Override
+    protected void updatePreviousValue() {
+        previousOrdinal = getter().get().ordinal();
     }
 }
@@ -1,25 +1,81 @@
 package com.enderio.core.common.sync;
 
-import net.minecraft.nbt.CompoundTag;
-
-import java.util.function.Consumer;
-import java.util.function.Supplier;
+import net.minecraft.network.FriendlyByteBuf;
 
+/**
+ * Syncs a float without boxing it.
+ */
 public class FloatDataSlot extends EnderDataSlot<Float> {
+    private final FloatSupplier getter;
+    private final FloatConsumer setter;
+
+    private float previousValue;
+
+    /**
+     * The number of steps values are rounded to per 1.0, or 0 to send exact values.
+     */
+    private final int quantization;
+
+    private int previousQuantized = -1;
+
+    public FloatDataSlot(FloatSupplier getter, FloatConsumer setter, SyncMode mode) {
+        this(getter, setter, mode, 0);
+    }
 
-    public FloatDataSlot(Supplier<Float> getter, Consumer<Float> setter, SyncMode mode) {
-        super(getter, setter, mode);
+    /**
+     * @param quantization round values to this many steps per 1.0, so changes smaller than a step are not sent. Use 0 to send exact values.
+     */
+    public FloatDataSlot(FloatSupplier getter, FloatConsumer setter, SyncMode mode, int quantization) {
+        //I can put null here, because I override the only usages of the getter and setter
+        super(null, null, mode);
+        this.getter = getter;
+        this.setter = setter;
+        this.quantization = quantization;
     }
 
     @Override
-    public CompoundTag toFullNBT() {
-        CompoundTag tag = new CompoundTag();
-        tag.putFloat("value", getter().get());
-        return tag;
+    public boolean hasChanged() {
+        if (quantization > 0)
+            return quantize(getter.getAsFloat()) != previousQuantized;
+        return Float.compare(getter.getAsFloat(), previousValue) != 0;
     }
 
     @Override
-    protected Float fromNBT(CompoundTag nbt) {
-        return nbt.getFloat("value");
+    public void toBuffer(FriendlyByteBuf buf) {
+        if (quantization > 0) {
+            buf.writeVarInt(quantize(getter.getAsFloat()));
+        } else {
+            buf.writeFloat(getter.getAsFloat());
+        }
+    }
+
+    @Override
+    protected Float fromBuffer(FriendlyByteBuf buf) {
+        //I can return null here, because I override the only usage of this method
+        return null;
+    }
+
+    @Override
+    public Runnable decodeBuffer(FriendlyByteBuf buf) {
+        float value = quantization > 0 ? buf.readVarInt() / (float) quantization : buf.readFloat();
+        return () -> setter.accept(value);
+    }
+
+    @Override
+    protected void updatePreviousValue() {
+        previousValue = getter.getAsFloat();
+        previousQuantized = quantize(previousValue);
+    }
+
+    private int quantize(float value) {
+        return Math.round(value * quantization);
+    }
+
+    public interface FloatSupplier {
+        float getAsFloat();
+    }
+
+    public interface FloatConsumer {
+        void accept(float value);
     }
 }
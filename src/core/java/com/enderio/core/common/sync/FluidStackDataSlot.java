@@ -1,24 +1,36 @@
 package com.enderio.core.common.sync;
 
-import net.minecraft.nbt.CompoundTag;
+import net.minecraft.network.FriendlyByteBuf;
 import net.minecraftforge.fluids.FluidStack;
 
 import java.util.function.Consumer;
 import java.util.function.Supplier;
 
 public class FluidStackDataSlot extends EnderDataSlot<FluidStack> {
+    private FluidStack previousValue = FluidStack.EMPTY;
 
     public FluidStackDataSlot(Supplier<FluidStack> getter, Consumer<FluidStack> setter, SyncMode syncMode) {
         super(getter, setter, syncMode);
     }
 
     @Override
-    public CompoundTag toFullNBT() {
-        return getter().get().writeToNBT(new CompoundTag());
+    public boolean hasChanged() {
+        FluidStack current = getter().get();
+        return current.getAmount() != previousValue.getAmount() || !current.isFluidEqual(previousValue);
     }
 
     @Override
-    public FluidStack fromNBT(CompoundTag nbt) {
-        return FluidStack.loadFluidStackFromNBT(nbt);
+    public void toBuffer(FriendlyByteBuf buf) {
+        buf.writeFluidStack(getter().get());
+    }
+
+    @Override
+    public FluidStack fromBuffer(FriendlyByteBuf buf) {
+        return buf.readFluidStack();
+    }
+
+    @Override
+    protected void updatePreviousValue() {
+        previousValue = getter().get().copy();
     }
 }
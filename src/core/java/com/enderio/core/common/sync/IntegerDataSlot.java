@@ -1,25 +1,62 @@
 package com.enderio.core.common.sync;
 
-import net.minecraft.nbt.CompoundTag;
+import net.minecraft.network.FriendlyByteBuf;
 
-import java.util.function.Consumer;
-import java.util.function.Supplier;
+import java.util.function.IntConsumer;
+import java.util.function.IntPredicate;
+import java.util.function.IntSupplier;
 
+/**
+ * Syncs an int without boxing it.
+ */
 public class IntegerDataSlot extends EnderDataSlot<Integer> {
+    private final IntSupplier getter;
+    private final IntConsumer setter;
+    private final IntPredicate validator;
 
-    public IntegerDataSlot(Supplier<Integer> getter, Consumer<Integer> setter, SyncMode mode) {
-        super(getter, setter, mode);
+    private int previousValue;
+
+    public IntegerDataSlot(IntSupplier getter, IntConsumer setter, SyncMode mode) {
+        this(getter, setter, mode, value -> true);
+    }
+
+    /**
+     * @param validator values read from the buffer are rejected unless they pass this check.
+     */
+    public IntegerDataSlot(IntSupplier getter, IntConsumer setter, SyncMode mode, IntPredicate validator) {
+        //I can put null here, because I override the only usages of the getter and setter
+        super(null, null, mode);
+        this.getter = getter;
+        this.setter = setter;
+        this.validator = validator;
+    }
+
+    @Override
+    public boolean hasChanged() {
+        return getter.getAsInt() != previousValue;
+    }
+
+    @Override
+    public void toBuffer(FriendlyByteBuf buf) {
+        buf.writeVarInt(getter.getAsInt());
+    }
+
+    @Override
+    protected Integer fromBuffer(FriendlyByteBuf buf) {
+        //I can return null here, because I override the only usage of this method
+        return null;
     }
 
     @Override
-    public CompoundTag toFullNBT() {
-        CompoundTag tag = new CompoundTag();
-        tag.putInt("value", getter().get());
-        return tag;
+    public Runnable decodeBuffer(FriendlyByteBuf buf) {
+        int value = buf.readVarInt();
+        if (!validator.test(value))
+            throw new IllegalArgumentException("Value " + value + " is not valid");
+        return () -> setter.accept(value);
     }
 
     @Override
-    protected Integer fromNBT(CompoundTag nbt) {
-        return nbt.getInt("value");
+    protected void updatePreviousValue() {
+        previousValue = getter.getAsInt();
     }
 }
@@ -0,0 +1,50 @@
+package com.enderio.core.common.sync;
+
+import net.minecraft.network.FriendlyByteBuf;
+
+import java.util.function.LongConsumer;
+import java.util.function.LongSupplier;
+
+/**
+ * Syncs a long without boxing it.
+ */
+public class LongDataSlot extends EnderDataSlot<Long> {
+    private final LongSupplier getter;
+    private final LongConsumer setter;
+
+    private long previousValue;
+
+    public LongDataSlot(LongSupplier getter, LongConsumer setter, SyncMode mode) {
+        //I can put null here, because I override the only usages of the getter and setter
+        super(null, null, mode);
+        this.getter = getter;
+        this.setter = setter;
+    }
+
+    @Override
+    public boolean hasChanged() {
+        return getter.getAsLong() != previousValue;
+    }
+
+    @Override
+    public void toBuffer(FriendlyByteBuf buf) {
+        buf.writeVarLong(getter.getAsLong());
+    }
+
+    @Override
+    protected Long fromBuffer(FriendlyByteBuf buf) {
+        //I can return null here, because I override the only usage of this method
+        return null;
+    }
+
+    @Override
+    public Runnable decodeBuffer(FriendlyByteBuf buf) {
+        long value = buf.readVarLong();
+        return () -> setter.accept(value);
+    }
+
+    @Override
+    protected void updatePreviousValue() {
+        previousValue = getter.getAsLong();
+    }
+}
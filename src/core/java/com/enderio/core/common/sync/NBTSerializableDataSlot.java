@@ -1,10 +1,15 @@
 package com.enderio.core.common.sync;
 
 import net.minecraft.nbt.CompoundTag;
+import net.minecraft.network.FriendlyByteBuf;
 import net.minecraftforge.common.util.INBTSerializable;
 
 import java.util.function.Supplier;
 
+/**
+ * Fallback data slot for values that can only describe themselves as NBT.
+ * Prefer a typed data slot where possible, as this serializes the full value to compare it.
+ */
 public class NBTSerializableDataSlot<T extends INBTSerializable<CompoundTag>> extends EnderDataSlot<T> {
 
     /**
@@ -12,6 +17,8 @@ public class NBTSerializableDataSlot<T extends INBTSerializable<CompoundTag>> ex
      */
     private final Callback setterCallback;
 
+    private CompoundTag previousValue = new CompoundTag();
+
     public NBTSerializableDataSlot(Supplier<T> getter, SyncMode syncMode) {
         this(getter, syncMode, () -> {});
     }
@@ -23,20 +30,35 @@ public class NBTSerializableDataSlot<T extends INBTSerializable<CompoundTag>> ex
     }
 
     @Override
-    public CompoundTag toFullNBT() {
-        return getter().get().serializeNBT();
+    public boolean hasChanged() {
+        return !getter().get().serializeNBT().equals(previousValue);
+    }
+
+    @Override
+    public void toBuffer(FriendlyByteBuf buf) {
+        buf.writeNbt(getter().get().serializeNBT());
     }
 
     @Override
-    protected T fromNBT(CompoundTag nbt) {
+    protected T fromBuffer(FriendlyByteBuf buf) {
         //I can return null here, because I override the only usage of this method
         return null;
     }
 
     @Override
-    public void handleNBT(CompoundTag tag) {
-        getter().get().deserializeNBT(tag);
-        setterCallback.call();
+    public Runnable decodeBuffer(FriendlyByteBuf buf) {
+        CompoundTag tag = buf.readNbt();
+        return () -> {
+            if (tag != null) {
+                getter().get().deserializeNBT(tag);
+                setterCallback.call();
+            }
+        };
+    }
+
+    @Override
+    protected void updatePreviousValue() {
+        previousValue = getter().get().serializeNBT();
     }
 
     public interface Callback {
@@ -1,25 +1,37 @@
 package com.enderio.core.common.sync;
 
-import net.minecraft.nbt.CompoundTag;
+import net.minecraft.network.FriendlyByteBuf;
 import net.minecraft.resources.ResourceLocation;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.function.Consumer;
 import java.util.function.Supplier;
 
 public class ResourceLocationDataSlot extends EnderDataSlot<ResourceLocation> {
+    @Nullable
+    private ResourceLocation previousValue;
+
     public ResourceLocationDataSlot(Supplier<ResourceLocation> getter, Consumer<ResourceLocation> setter, SyncMode mode) {
         super(getter, setter, mode);
     }
 
     @Override
-    public CompoundTag toFullNBT() {
-        CompoundTag tag = new CompoundTag();
-        tag.putString("rl", getter().get().toString());
-        return tag;
+    public boolean hasChanged() {
+        return !getter().get().equals(previousValue);
+    }
+
+    @Override
+    public void toBuffer(FriendlyByteBuf buf) {
+        buf.writeResourceLocation(getter().get());
+    }
+
+    @Override
+    protected ResourceLocation fromBuffer(FriendlyByteBuf buf) {
+        return buf.readResourceLocation();
     }
 
     @Override
-    protected ResourceLocation fromNBT(CompoundTag nbt) {
-        return new ResourceLocation(nbt.getString("rl"));
+    protected void updatePreviousValue() {
+        previousValue = getter().get();
     }
 }
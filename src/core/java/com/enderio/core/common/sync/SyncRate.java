@@ -0,0 +1,46 @@
+package com.enderio.core.common.sync;
+
+/**
+ * How often a data slot may send partial updates.
+ * Full updates are never limited.
+ */
+public enum SyncRate {
+    /**
+     * Synchronise as soon as the value changes. Use this for configuration the player interacts with.
+     */
+    ON_CHANGE(0, false),
+
+    /**
+     * Synchronise at most 4 times a second, for fast changing values like task progress.
+     * May be held back while the player's connection is saturated.
+     */
+    FAST(5, true),
+
+    /**
+     * Synchronise at most 2 times a second, for values like stored energy.
+     * May be held back while the player's connection is saturated.
+     */
+    SLOW(10, true);
+
+    private final int minInterval;
+    private final boolean deferrable;
+
+    SyncRate(int minInterval, boolean deferrable) {
+        this.minInterval = minInterval;
+        this.deferrable = deferrable;
+    }
+
+    /**
+     * @return the minimum number of ticks between two partial updates
+     */
+    public int getMinInterval() {
+        return minInterval;
+    }
+
+    /**
+     * @return whether updates may be held back to stay within a player's sync budget
+     */
+    public boolean isDeferrable() {
+        return deferrable;
+    }
+}
@@ -0,0 +1,164 @@
+package com.enderio.core.common.sync;
+
+import com.enderio.core.EnderCore;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.world.level.block.entity.BlockEntityType;
+import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+import net.minecraftforge.registries.ForgeRegistries;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Counts outbound packets, bytes and data slot updates, broken down by block entity type, data slot and {@link SyncMode}.
+ * Counts are kept in one bucket per second, so they can be summed over a rolling window of up to {@link #MAX_WINDOW_SECONDS}.
+ * Recording is off by default. Callers check {@link #isEnabled()} first, so a disabled recorder costs one static field read.
+ */
+@Mod.EventBusSubscriber(modid = EnderCore.MODID)
+public class SyncStatistics {
+    public static final int MAX_WINDOW_SECONDS = 60;
+
+    private static boolean enabled;
+
+    private static final Bucket[] BUCKETS = new Bucket[MAX_WINDOW_SECONDS];
+    private static int currentBucket;
+    private static int ticksInBucket;
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    public static void setEnabled(boolean enabled) {
+        if (enabled && !SyncStatistics.enabled) {
+            clear();
+        }
+        SyncStatistics.enabled = enabled;
+    }
+
+    public static void clear() {
+        for (int i = 0; i < BUCKETS.length; i++) {
+            BUCKETS[i] = new Bucket();
+        }
+        currentBucket = 0;
+        ticksInBucket = 0;
+    }
+
+    // region Recording
+
+    /**
+     * Record a data slot written to an update stream.
+     * @param bytes the bytes written, including the data slot index
+     */
+    public static void recordDataSlot(BlockEntityType<?> type, int index, EnderDataSlot<?> dataSlot, int bytes) {
+        BUCKETS[currentBucket].dataSlots
+            .computeIfAbsent(new DataSlotKey(type, index, dataSlot.getClass()), k -> new Counter())
+            .add(1, bytes);
+    }
+
+    /**
+     * Record an update stream of a block entity sent to some players.
+     */
+    public static void recordUpdate(BlockEntityType<?> type, SyncMode mode, int bytes, int recipients) {
+        Bucket bucket = BUCKETS[currentBucket];
+        bucket.blockEntityTypes.computeIfAbsent(type, k -> new Counter()).add(recipients, (long) bytes * recipients);
+        bucket.syncModes.computeIfAbsent(mode, k -> new Counter()).add(recipients, (long) bytes * recipients);
+    }
+
+    /**
+     * Record a packet sent to a player.
+     */
+    public static void recordPacket(Class<?> packetClass, int bytes) {
+        BUCKETS[currentBucket].packets.computeIfAbsent(packetClass, k -> new Counter()).add(1, bytes);
+    }
+
+    @SubscribeEvent
+    public static void onServerTick(TickEvent.ServerTickEvent event) {
+        if (enabled && event.phase == TickEvent.Phase.END && ++ticksInBucket >= 20) {
+            ticksInBucket = 0;
+            currentBucket = (currentBucket + 1) % BUCKETS.length;
+            BUCKETS[currentBucket] = new Bucket();
+        }
+    }
+
+    // endregion
+
+    // region Reporting
+
+    /**
+     * Create a report of the last seconds.
+     * @param seconds the window size, capped at {@link #MAX_WINDOW_SECONDS}
+     * @param limit the maximum number of lines per section
+     */
+    public static List<String> report(int seconds, int limit) {
+        seconds = Math.min(seconds, MAX_WINDOW_SECONDS);
+        Map<BlockEntityType<?>, Counter> blockEntityTypes = new HashMap<>();
+        Map<DataSlotKey, Counter> dataSlots = new HashMap<>();
+        Map<SyncMode, Counter> syncModes = new EnumMap<>(SyncMode.class);
+        Map<Class<?>, Counter> packets = new HashMap<>();
+        for (int i = 0; i < seconds; i++) {
+            Bucket bucket = BUCKETS[Math.floorMod(currentBucket - i, BUCKETS.length)];
+            if (bucket != null) {
+                sum(bucket.blockEntityTypes, blockEntityTypes);
+                sum(bucket.dataSlots, dataSlots);
+                sum(bucket.syncModes, syncModes);
+                sum(bucket.packets, packets);
+            }
+        }
+
+        List<String> lines = new ArrayList<>();
+        lines.add("Sync statistics of the last " + seconds + "s");
+        section(lines, "Packets", packets, limit, Class::getSimpleName);
+        section(lines, "Updates by block entity type", blockEntityTypes, limit, SyncStatistics::getName);
+        section(lines, "Updates by sync mode", syncModes, limit, Enum::name);
+        section(lines, "Data slots", dataSlots, limit, key -> getName(key.type()) + " #" + key.index() + " " + key.dataSlotClass().getSimpleName());
+        return lines;
+    }
+
+    private static <K> void sum(Map<K, Counter> from, Map<K, Counter> into) {
+        for (Map.Entry<K, Counter> entry : from.entrySet()) {
+            Counter counter = entry.getValue();
+            into.computeIfAbsent(entry.getKey(), k -> new Counter()).add(counter.count, counter.bytes);
+        }
+    }
+
+    private static <K> void section(List<String> lines, String title, Map<K, Counter> counters, int limit, Function<K, String> name) {
+        lines.add(title + ":");
+        counters.entrySet().stream()
+            .sorted(Comparator.comparingLong((Map.Entry<K, Counter> entry) -> entry.getValue().bytes).reversed())
+            .limit(limit)
+            .forEach(entry -> lines.add("  " + name.apply(entry.getKey()) + ": " + entry.getValue().count + " x, " + entry.getValue().bytes + " bytes"));
+    }
+
+    private static String getName(BlockEntityType<?> type) {
+        ResourceLocation key = ForgeRegistries.BLOCK_ENTITY_TYPES.getKey(type);
+        return key != null ? key.toString() : type.toString();
+    }
+
+    // endregion
+
+    private record DataSlotKey(BlockEntityType<?> type, int index, Class<?> dataSlotClass) {}
+
+    private static class Counter {
+        private long count;
+        private long bytes;
+
+        private void add(long count, long bytes) {
+            this.count += count;
+            this.bytes += bytes;
+        }
+    }
+
+    private static class Bucket {
+        private final Map<BlockEntityType<?>, Counter> blockEntityTypes = new HashMap<>();
+        private final Map<DataSlotKey, Counter> dataSlots = new HashMap<>();
+        private final Map<SyncMode, Counter> syncModes = new EnumMap<>(SyncMode.class);
+        private final Map<Class<?>, Counter> packets = new HashMap<>();
+    }
+}
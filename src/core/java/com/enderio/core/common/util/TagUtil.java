@@ -3,12 +3,30 @@ package com.enderio.core.common.util;
 import com.enderio.core.EnderCore;
 import net.minecraft.tags.TagKey;
 import net.minecraft.world.item.Item;
+import net.minecraftforge.event.TagsUpdatedEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
 import net.minecraftforge.registries.ForgeRegistries;
 import net.minecraftforge.registries.tags.ITag;
 
 import java.util.Optional;
 
+@Mod.EventBusSubscriber(modid = EnderCore.MODID)
 public class TagUtil {
+    private static volatile int tagGeneration;
+
+    /**
+     * Get a counter that changes whenever tags are reloaded, to invalidate values resolved from tags.
+     */
+    public static int getTagGeneration() {
+        return tagGeneration;
+    }
+
+    @SubscribeEvent
+    public static void onTagsUpdated(TagsUpdatedEvent event) {
+        tagGeneration++;
+    }
+
     /**
      * Get an optional item from a tag.
      * An optional item means the item may not actually be present, and if it isn't it is handled gracefully.
@@ -1,6 +1,7 @@
 package com.enderio.machines;
 
 import com.enderio.EnderIO;
+import com.enderio.api.capacitor.ICapacitorScalable;
 import com.enderio.machines.common.config.MachinesConfig;
 import com.enderio.machines.common.init.MachineBlockEntities;
 import com.enderio.machines.common.init.MachineBlocks;
@@ -14,6 +15,7 @@ import net.minecraftforge.eventbus.api.SubscribeEvent;
 import net.minecraftforge.fml.ModLoadingContext;
 import net.minecraftforge.fml.common.Mod;
 import net.minecraftforge.fml.config.ModConfig;
+import net.minecraftforge.fml.event.config.ModConfigEvent;
 import net.minecraftforge.fml.event.lifecycle.FMLConstructModEvent;
 
 @Mod.EventBusSubscriber(modid = EnderIO.MODID, bus = Mod.EventBusSubscriber.Bus.MOD)
@@ -33,6 +35,12 @@ public class EIOMachines {
         MachineRecipes.register();
     }
 
+    @SubscribeEvent
+    public static void onConfigReload(ModConfigEvent.Reloading event) {
+        // Scalable base values may come from configs.
+        ICapacitorScalable.invalidateCaches();
+    }
+
     @SubscribeEvent
     public static void gatherData(GatherDataEvent event) {
         DataGenerator generator = event.getGenerator();
@@ -22,7 +22,7 @@ public class FluidTankScreen extends EIOScreen<FluidTankMenu> {
         super.init();
         addRenderableOnly(new FluidStackWidget(this, getMenu().getBlockEntity()::getFluidTank, 80 + leftPos, 21 + topPos, 16, 47));
         addRenderableWidget(new EnumIconWidget<>(this, leftPos + imageWidth - 8 - 12, topPos + 6, () -> menu.getBlockEntity().getRedstoneControl(),
-            control -> menu.getBlockEntity().setRedstoneControl(control), EIOLang.REDSTONE_MODE));
+            control -> menu.setRedstoneControl(control), EIOLang.REDSTONE_MODE));
     }
 
     @Override
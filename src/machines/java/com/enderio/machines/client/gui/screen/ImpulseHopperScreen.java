@@ -25,7 +25,7 @@ public class ImpulseHopperScreen extends EIOScreen<ImpulseHopperMenu> {
         addRenderableOnly(new EnergyWidget(this, getMenu().getBlockEntity()::getEnergyStorage, 15 + leftPos, 9 + topPos, 9, 47));
 
         addRenderableWidget(new EnumIconWidget<>(this, leftPos + imageWidth - 8 - 12, topPos + 6, () -> menu.getBlockEntity().getRedstoneControl(),
-            control -> menu.getBlockEntity().setRedstoneControl(control), EIOLang.REDSTONE_MODE));
+            control -> menu.setRedstoneControl(control), EIOLang.REDSTONE_MODE));
     }
 
     @Override
@@ -39,7 +39,7 @@ public class SagMillScreen extends EIOScreen<SagMillMenu> {
         addRenderableOnly(new GrindingBallWidget(142 + leftPos, 23 + topPos));
 
         addRenderableWidget(new EnumIconWidget<>(this, leftPos + imageWidth - 8 - 12, topPos + 6, () -> menu.getBlockEntity().getRedstoneControl(),
-            control -> menu.getBlockEntity().setRedstoneControl(control), EIOLang.REDSTONE_MODE));
+            control -> menu.setRedstoneControl(control), EIOLang.REDSTONE_MODE));
     }
 
     @Override
@@ -28,7 +28,7 @@ public class SlicerScreen extends EIOScreen<SlicerMenu> {
         addRenderableOnly(new EnergyWidget(this, getMenu().getBlockEntity()::getEnergyStorage, 16 + leftPos, 14 + topPos, 9, 42));
 
         addRenderableWidget(new EnumIconWidget<>(this, leftPos + imageWidth - 8 - 12, topPos + 6, () -> menu.getBlockEntity().getRedstoneControl(),
-            control -> menu.getBlockEntity().setRedstoneControl(control), EIOLang.REDSTONE_MODE));
+            control -> menu.setRedstoneControl(control), EIOLang.REDSTONE_MODE));
     }
 
     @Override
@@ -57,25 +57,31 @@ public class MachineBlock extends BaseEntityBlock {
     @Nullable
     @Override
     public <T extends BlockEntity> BlockEntityTicker<T> getTicker(Level pLevel, BlockState pState, BlockEntityType<T> pBlockEntityType) {
+        // Server side ticking is done by the MachineTickScheduler.
+        if (!pLevel.isClientSide)
+            return null;
         return createTickerHelper(pBlockEntityType, blockEntityType.get(), MachineBlockEntity::tick);
     }
 
     @Override
     public void neighborChanged(BlockState pState, Level pLevel, BlockPos pPos, Block pBlock, BlockPos pFromPos, boolean pIsMoving) {
         super.neighborChanged(pState, pLevel, pPos, pBlock, pFromPos, pIsMoving);
-        updateBlockEntityCache(pLevel, pPos);
+        updateBlockEntityCache(pLevel, pPos, pFromPos);
     }
 
     @Override
     public void onNeighborChange(BlockState state, LevelReader level, BlockPos pos, BlockPos neighbor) {
         super.onNeighborChange(state, level, pos, neighbor);
-        updateBlockEntityCache(level, pos);
+        updateBlockEntityCache(level, pos, neighbor);
     }
 
-    private void updateBlockEntityCache(LevelReader level, BlockPos pos) {
+    private void updateBlockEntityCache(LevelReader level, BlockPos pos, BlockPos neighbor) {
         BlockEntity blockEntity = level.getBlockEntity(pos);
         if (blockEntity instanceof MachineBlockEntity machineBlockEntity) {
-            machineBlockEntity.updateCapabilityCache();
+            machineBlockEntity.updateCapabilityCache(neighbor);
+
+            // The neighbor or the redstone signal changed, so there may be work to do.
+            machineBlockEntity.wakeUp();
         }
     }
 
@@ -9,9 +9,11 @@ import com.enderio.core.common.recipes.CountedIngredient;
 import com.enderio.core.common.sync.EnumDataSlot;
 import com.enderio.core.common.sync.FloatDataSlot;
 import com.enderio.core.common.sync.SyncMode;
+import com.enderio.core.common.sync.SyncRate;
 import com.enderio.machines.common.blockentity.base.PoweredCraftingMachine;
 import com.enderio.machines.common.blockentity.task.PoweredCraftingTask;
 import com.enderio.machines.common.compat.VanillaAlloySmeltingRecipe;
+import com.enderio.machines.common.compat.VanillaSmeltingCache;
 import com.enderio.machines.common.init.MachineRecipes;
 import com.enderio.machines.common.io.energy.MachineEnergyStorage;
 import com.enderio.machines.common.io.item.MachineInventory;
@@ -19,6 +21,7 @@ import com.enderio.machines.common.io.item.MachineInventoryLayout;
 import com.enderio.machines.common.menu.AlloySmelterMenu;
 import com.enderio.machines.common.menu.PrimitiveAlloySmelterMenu;
 import com.enderio.machines.common.recipe.AlloySmeltingRecipe;
+import com.enderio.machines.common.recipe.RecipeIndex;
 import net.minecraft.core.BlockPos;
 import net.minecraft.core.Direction;
 import net.minecraft.nbt.CompoundTag;
@@ -28,7 +31,6 @@ import net.minecraft.world.entity.player.Player;
 import net.minecraft.world.inventory.AbstractContainerMenu;
 import net.minecraft.world.item.ItemStack;
 import net.minecraft.world.item.crafting.RecipeType;
-import net.minecraft.world.item.crafting.SmeltingRecipe;
 import net.minecraft.world.level.block.entity.BlockEntityType;
 import net.minecraft.world.level.block.state.BlockState;
 import net.minecraftforge.common.ForgeHooks;
@@ -60,7 +62,7 @@ public class AlloySmelterBlockEntity extends PoweredCraftingMachine<AlloySmeltin
 
         public Primitive(BlockEntityType<?> pType, BlockPos pWorldPosition, BlockState pBlockState) {
             super(pType, pWorldPosition, pBlockState);
-            addDataSlot(new FloatDataSlot(this::getBurnProgress, p -> clientBurnProgress = p, SyncMode.GUI));
+            addDataSlot(new FloatDataSlot(this::getBurnProgress, p -> clientBurnProgress = p, SyncMode.GUI, 256).withSyncRate(SyncRate.FAST));
         }
 
         @Override
@@ -119,6 +121,12 @@ public class AlloySmelterBlockEntity extends PoweredCraftingMachine<AlloySmeltin
             }
         }
 
+        @Override
+        protected int getSleepTicks() {
+            // Burn time isn't saved, so nothing marks the machine changed while it burns.
+            return isBurning() ? 0 : super.getSleepTicks();
+        }
+
         @Override
         protected MachineEnergyStorage createEnergyStorage(EnergyIOMode energyIOMode, Supplier<Integer> capacity, Supplier<Integer> transferRate,
             Supplier<Integer> usageRate) {
@@ -132,6 +140,10 @@ public class AlloySmelterBlockEntity extends PoweredCraftingMachine<AlloySmeltin
                 public int consumeEnergy(int energy, boolean simulate) {
                     // We burn fuel, this energy storage is merely a wrapper now.
                     if (isBurning()) {
+                        // The task's progress changes, so it needs saving.
+                        if (!simulate) {
+                            setChanged();
+                        }
                         return getBurnToFE();
                     }
                     return 0;
@@ -180,6 +192,9 @@ public class AlloySmelterBlockEntity extends PoweredCraftingMachine<AlloySmeltin
      */
     private final AlloySmeltingRecipe.Container container;
 
+    @Nullable
+    private final EnumDataSlot<AlloySmelterMode> modeDataSlot;
+
     public AlloySmelterBlockEntity(BlockEntityType<?> pType, BlockPos pWorldPosition, BlockState pBlockState) {
         super(MachineRecipes.ALLOY_SMELTING.type().get(), CAPACITY, TRANSFER, USAGE, pType, pWorldPosition, pBlockState);
 
@@ -187,8 +202,10 @@ public class AlloySmelterBlockEntity extends PoweredCraftingMachine<AlloySmeltin
         this.container = new AlloySmeltingRecipe.Container(getInventory());
 
         // This can be changed by the gui for the normal and enhanced machines.
-        if (restrictedMode()) {
-            add2WayDataSlot(new EnumDataSlot<>(this::getMode, this::setMode, SyncMode.GUI));
+        if (!restrictedMode()) {
+            modeDataSlot = add2WayDataSlot(new EnumDataSlot<>(this::getMode, this::setMode, SyncMode.GUI));
+        } else {
+            modeDataSlot = null;
         }
     }
 
@@ -205,9 +222,18 @@ public class AlloySmelterBlockEntity extends PoweredCraftingMachine<AlloySmeltin
      */
     public void setMode(AlloySmelterMode mode) {
         this.mode = mode;
+        invalidateRecipeCache();
         newTaskAvailable();
     }
 
+    /**
+     * Get the data slot the GUI submits mode edits to, or null if the mode is restricted.
+     */
+    @Nullable
+    public EnumDataSlot<AlloySmelterMode> getModeDataSlot() {
+        return modeDataSlot;
+    }
+
     /**
      * Whether the mode is restricted.
      * Used to disable serialization of the mode and sync of the slot when this is the primitive variant.
@@ -227,12 +253,7 @@ public class AlloySmelterBlockEntity extends PoweredCraftingMachine<AlloySmeltin
         if (currentTask != null) {
             var currentRecipe = currentTask.getRecipe();
             if (currentRecipe != null) {
-                MachineInventory inventory = getInventory();
-                ItemStack currentContents = inventory.getStackInSlot(slot);
-                inventory.setStackInSlot(slot, stack);
-                boolean accept = currentRecipe.matches(container, level);
-                inventory.setStackInSlot(slot, currentContents);
-                return accept;
+                return currentRecipe.matchesWith(container, slot, stack, level);
             }
         }
         return true;
@@ -249,14 +270,36 @@ public class AlloySmelterBlockEntity extends PoweredCraftingMachine<AlloySmeltin
 
         // Get vanilla smelting recipe.
         if (getMode().canSmelt()) {
-            var recipe = level.getRecipeManager()
-                .getRecipeFor(RecipeType.SMELTING, getContainer(), level);
+            var recipe = VanillaSmeltingCache.get(level)
+                .getRecipeFor(getContainer(), level);
             if (recipe.isPresent())
-                return Optional.of(new VanillaAlloySmeltingRecipe(recipe.get()));
+                return Optional.of(recipe.get());
         }
         return Optional.empty();
     }
 
+    @Override
+    protected boolean canReuseRecipe(AlloySmeltingRecipe recipe) {
+        // Alloying takes priority over smelting the same inputs.
+        return !(recipe instanceof VanillaAlloySmeltingRecipe) || !getMode().canAlloy();
+    }
+
+    @Override
+    protected int getMaxIngredientCount(RecipeIndex<AlloySmeltingRecipe.Container, AlloySmeltingRecipe> index) {
+        int max = 1;
+        for (AlloySmeltingRecipe recipe : index.getRecipes()) {
+            for (CountedIngredient input : recipe.getInputs()) {
+                max = Math.max(max, input.count());
+            }
+        }
+        return max;
+    }
+
+    @Override
+    protected int getRecipeMode() {
+        return getMode().ordinal();
+    }
+
     @Override
     protected PoweredCraftingTask<AlloySmeltingRecipe, AlloySmeltingRecipe.Container> createTask(@Nullable AlloySmeltingRecipe recipe) {
         return createTask(recipe, 3);
@@ -319,6 +362,12 @@ public class AlloySmelterBlockEntity extends PoweredCraftingMachine<AlloySmeltin
                 }
             }
 
+            @Override
+            protected boolean canBatch(AlloySmeltingRecipe recipe) {
+                // Smelting already takes from every slot, and its output depends on how many items were taken.
+                return !(recipe instanceof VanillaAlloySmeltingRecipe);
+            }
+
             @Nullable
             @Override
             protected AlloySmeltingRecipe loadRecipe(ResourceLocation id) {
@@ -326,7 +375,7 @@ public class AlloySmelterBlockEntity extends PoweredCraftingMachine<AlloySmeltin
                     if (recipe.getType() == MachineRecipes.ALLOY_SMELTING.type().get()) {
                         return (AlloySmeltingRecipe) recipe;
                     } else if (recipe.getType() == RecipeType.SMELTING) {
-                        return new VanillaAlloySmeltingRecipe((SmeltingRecipe) recipe);
+                        return VanillaSmeltingCache.get(level).byId(id);
                     }
                     return null;
                 }).orElse(null);
@@ -341,7 +390,7 @@ public class AlloySmelterBlockEntity extends PoweredCraftingMachine<AlloySmeltin
 
     @Override
     public void saveAdditional(CompoundTag pTag) {
-        if (restrictedMode()) {
+        if (!restrictedMode()) {
             pTag.putInt("Mode", this.mode.ordinal());
         }
         pTag.putInt("InputsTaken", container.getInputsTaken());
@@ -350,7 +399,7 @@ public class AlloySmelterBlockEntity extends PoweredCraftingMachine<AlloySmeltin
 
     @Override
     public void load(CompoundTag pTag) {
-        if (restrictedMode()) {
+        if (!restrictedMode()) {
             try {
                 mode = AlloySmelterMode.values()[pTag.getInt("Mode")];
             } catch (IndexOutOfBoundsException ex) { // In case something happens in the future.
@@ -9,6 +9,7 @@ import com.enderio.machines.common.io.item.MachineInventory;
 import com.enderio.machines.common.io.item.MachineInventoryLayout;
 import com.enderio.machines.common.menu.EnchanterMenu;
 import com.enderio.machines.common.recipe.EnchanterRecipe;
+import com.enderio.machines.common.recipe.RecipeIndex;
 import net.minecraft.core.BlockPos;
 import net.minecraft.world.entity.player.Inventory;
 import net.minecraft.world.entity.player.Player;
@@ -71,7 +72,7 @@ public class EnchanterBlockEntity extends MachineBlockEntity {
         return new MachineInventory(getIOConfig(), layout) {
             protected void onContentsChanged(int slot) {
                 if (slot != 3) {
-                    Optional<EnchanterRecipe> recipe = level.getRecipeManager().getRecipeFor(MachineRecipes.ENCHANTING.type().get(), container, level);
+                    Optional<EnchanterRecipe> recipe = RecipeIndex.get(level, MachineRecipes.ENCHANTING.type().get()).getRecipeFor(container, level);
                     if (recipe.isPresent()) {
                         getInventory().setStackInSlot(3, recipe.get().assemble(container));
                     } else {
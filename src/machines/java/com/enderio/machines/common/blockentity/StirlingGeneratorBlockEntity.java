@@ -6,10 +6,12 @@ import com.enderio.api.capacitor.FixedScalable;
 import com.enderio.api.capacitor.QuadraticScalable;
 import com.enderio.core.common.sync.FloatDataSlot;
 import com.enderio.core.common.sync.SyncMode;
+import com.enderio.core.common.sync.SyncRate;
 import com.enderio.machines.common.blockentity.base.PowerGeneratingMachineEntity;
 import com.enderio.machines.common.io.item.MachineInventoryLayout;
 import com.enderio.machines.common.menu.StirlingGeneratorMenu;
 import net.minecraft.core.BlockPos;
+import net.minecraft.nbt.CompoundTag;
 import net.minecraft.world.entity.player.Inventory;
 import net.minecraft.world.entity.player.Player;
 import net.minecraft.world.inventory.AbstractContainerMenu;
@@ -35,7 +37,7 @@ public class StirlingGeneratorBlockEntity extends PowerGeneratingMachineEntity {
     public StirlingGeneratorBlockEntity(BlockEntityType<?> type, BlockPos worldPosition,
         BlockState blockState) {
         super(CAPACITY, TRANSFER, USAGE, type, worldPosition, blockState);
-        addDataSlot(new FloatDataSlot(this::getBurnProgress, p -> clientBurnProgress = p, SyncMode.GUI));
+        addDataSlot(new FloatDataSlot(this::getBurnProgress, p -> clientBurnProgress = p, SyncMode.GUI, 256).withSyncRate(SyncRate.FAST));
     }
 
     @Override
@@ -55,26 +57,53 @@ public class StirlingGeneratorBlockEntity extends PowerGeneratingMachineEntity {
 
         // Only continue burning if redstone is enabled and the internal buffer has space.
         if (canAct() && !isGenerating() && getEnergyStorage().getEnergyStored() < getEnergyStorage().getMaxEnergyStored()) {
-            // Get the fuel
-            ItemStack fuel = getInventory().getStackInSlot(0);
-            if (!fuel.isEmpty()) {
-                // Get the burn time.
-                int burningTime = ForgeHooks.getBurnTime(fuel, RecipeType.SMELTING);
-
-                if (burningTime > 0) {
-                    burnTime = burningTime;
-                    burnDuration = burnTime;
-
-                    // Remove the fuel
-                    fuel.shrink(1);
-                    getInventory().setStackInSlot(0, fuel);
-                }
-            }
+            refuel();
         }
 
         super.serverTick();
     }
 
+    /**
+     * Burn the next fuel item.
+     * @return whether fuel was taken
+     */
+    private boolean refuel() {
+        // Get the fuel
+        ItemStack fuel = getInventory().getStackInSlot(0);
+        if (!fuel.isEmpty()) {
+            // Get the burn time.
+            int burningTime = ForgeHooks.getBurnTime(fuel, RecipeType.SMELTING);
+
+            if (burningTime > 0) {
+                burnTime = burningTime;
+                burnDuration = burnTime;
+
+                // Remove the fuel
+                fuel.shrink(1);
+                getInventory().setStackInSlot(0, fuel);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    protected int generateFor(int ticks) {
+        // Burn whole fuel items at once, refuelling under the same conditions as serverTick.
+        long energy = getEnergyStorage().getEnergyStored();
+        int generated = 0;
+        while (generated < ticks) {
+            if (!isGenerating() && (!canAct() || energy >= getEnergyStorage().getMaxEnergyStored() || !refuel()))
+                break;
+
+            int burned = Math.min(burnTime, ticks - generated);
+            burnTime -= burned;
+            generated += burned;
+            energy += (long) burned * getGenerationRate();
+        }
+        return generated;
+    }
+
     @Override
     public boolean isGenerating() {
         return burnTime > 0;
@@ -97,6 +126,20 @@ public class StirlingGeneratorBlockEntity extends PowerGeneratingMachineEntity {
         return 10;
     }
 
+    @Override
+    public void saveAdditional(CompoundTag pTag) {
+        super.saveAdditional(pTag);
+        pTag.putInt("BurnTime", burnTime);
+        pTag.putInt("BurnDuration", burnDuration);
+    }
+
+    @Override
+    public void load(CompoundTag pTag) {
+        super.load(pTag);
+        burnTime = pTag.getInt("BurnTime");
+        burnDuration = pTag.getInt("BurnDuration");
+    }
+
     @Nullable
     @Override
     public AbstractContainerMenu createMenu(int pContainerId, Inventory pInventory, Player pPlayer) {
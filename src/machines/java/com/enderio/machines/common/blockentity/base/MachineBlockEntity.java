@@ -8,22 +8,26 @@ import com.enderio.core.common.sync.EnumDataSlot;
 import com.enderio.core.common.sync.NBTSerializableDataSlot;
 import com.enderio.core.common.sync.SyncMode;
 import com.enderio.machines.common.block.MachineBlock;
+import com.enderio.machines.common.config.MachinesConfig;
 import com.enderio.machines.common.io.IOConfig;
+import com.enderio.machines.common.io.SideDistributor;
+import com.enderio.machines.common.io.item.ItemTransfer;
 import com.enderio.machines.common.io.item.MachineInventory;
 import com.enderio.machines.common.io.item.MachineInventoryLayout;
 import net.minecraft.core.BlockPos;
 import net.minecraft.core.Direction;
 import net.minecraft.nbt.CompoundTag;
 import net.minecraft.network.chat.Component;
+import net.minecraft.server.level.ServerLevel;
 import net.minecraft.world.MenuProvider;
 import net.minecraft.world.entity.player.Player;
-import net.minecraft.world.item.ItemStack;
 import net.minecraft.world.level.block.Block;
 import net.minecraft.world.level.block.entity.BlockEntity;
 import net.minecraft.world.level.block.entity.BlockEntityType;
 import net.minecraft.world.level.block.state.BlockState;
 import net.minecraftforge.client.model.data.ModelData;
 import net.minecraftforge.client.model.data.ModelProperty;
+import net.minecraftforge.common.capabilities.Capability;
 import net.minecraftforge.common.capabilities.ForgeCapabilities;
 import net.minecraftforge.common.util.LazyOptional;
 import net.minecraftforge.fluids.FluidStack;
@@ -31,7 +35,8 @@ import net.minecraftforge.fluids.capability.IFluidHandler;
 import net.minecraftforge.items.IItemHandler;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.EnumMap;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 
 import static net.minecraftforge.fluids.capability.IFluidHandler.FluidAction;
@@ -52,6 +57,9 @@ public abstract class MachineBlockEntity extends EnderBlockEntity implements Men
 
     private RedstoneControl redstoneControl = RedstoneControl.ALWAYS_ACTIVE;
 
+    @Nullable
+    private EnumDataSlot<RedstoneControl> redstoneControlDataSlot;
+
     // endregion
 
     // region Items and Fluids
@@ -59,9 +67,20 @@ public abstract class MachineBlockEntity extends EnderBlockEntity implements Men
     private final MachineInventory inventory;
 
     // Caches for external block interaction
-    private final EnumMap<Direction, LazyOptional<IItemHandler>> itemHandlerCache = new EnumMap<>(Direction.class);
-    private final EnumMap<Direction, LazyOptional<IFluidHandler>> fluidHandlerCache = new EnumMap<>(Direction.class);
-    private boolean isCacheDirty = false;
+    private final List<NeighborCapabilityCache<?>> neighborCaches = new ArrayList<>();
+    private final NeighborCapabilityCache<IItemHandler> itemHandlerCache = addNeighborCache(ForgeCapabilities.ITEM_HANDLER);
+    private final NeighborCapabilityCache<IFluidHandler> fluidHandlerCache = addNeighborCache(ForgeCapabilities.FLUID_HANDLER);
+    private boolean isCacheDirty = true;
+
+    // Splitting of pushed resources between sides, and slot hints of the item transfers through each side
+    private final SideDistributor itemDistributor = new SideDistributor();
+    private final SideDistributor fluidDistributor = new SideDistributor();
+    private final ItemTransfer[] itemPushes = new ItemTransfer[6];
+    private final ItemTransfer[] itemPulls = new ItemTransfer[6];
+
+    // Fluid transfers refused by the neighbor back off: transfers left to skip, and the length of the last back-off
+    private final int[] fluidBackoff = new int[6];
+    private final int[] fluidBackoffLength = new int[6];
 
     // endregion
 
@@ -83,7 +102,7 @@ public abstract class MachineBlockEntity extends EnderBlockEntity implements Men
 
         if (supportsRedstoneControl()) {
             // Register sync slot for redstone control.
-            add2WayDataSlot(new EnumDataSlot<>(this::getRedstoneControl, this::setRedstoneControl, SyncMode.GUI));
+            redstoneControlDataSlot = add2WayDataSlot(new EnumDataSlot<>(this::getRedstoneControl, this::setRedstoneControl, SyncMode.GUI));
         }
 
         // Register sync slot for ioConfig and setup model data.
@@ -136,6 +155,11 @@ public abstract class MachineBlockEntity extends EnderBlockEntity implements Men
                 level.updateNeighborsAt(worldPosition, getBlockState().getBlock());
             }
 
+            @Override
+            protected void onLimitChanged(Direction side) {
+                setChanged();
+            }
+
             @Override
             protected Direction getBlockFacing() {
                 BlockState state = getBlockState();
@@ -208,10 +232,65 @@ public abstract class MachineBlockEntity extends EnderBlockEntity implements Men
 
     // region Block Entity ticking
 
+    /**
+     * How often a sleeping machine with forced IO wakes up to retry moving resources.
+     */
+    protected static final int IO_POLL_TICKS = 10;
+
+    /**
+     * How often the slow work of {@link #canActSlow()} runs.
+     */
+    private static final int SLOW_TICKS = 5;
+
+    /**
+     * The game time the slow work last ran at.
+     * Kept per machine rather than derived from the game time, so a machine the scheduler deferred does the slow work on its next turn.
+     */
+    private long lastSlowTick = Long.MIN_VALUE / 2;
+
+    /**
+     * The game time {@link #slowTick} was decided at, so all callers in one tick agree.
+     */
+    private long slowTickDecidedAt = Long.MIN_VALUE;
+    private boolean slowTick;
+
+    /**
+     * The least fluid in mB moved through one side at a time.
+     */
+    protected static final int FLUID_TRANSFER_RATE = 100;
+
+    /**
+     * The most fluid transfers skipped after the neighbor refused.
+     */
+    private static final int MAX_FLUID_BACKOFF = 8;
+
+    /**
+     * Whether the {@link MachineTickScheduler} currently ticks this machine. Only the scheduler changes this.
+     */
+    boolean scheduled;
+
+    @Override
+    public void onLoad() {
+        super.onLoad();
+
+        // Machines are ticked by the scheduler on the server, see MachineBlock#getTicker.
+        if (level instanceof ServerLevel serverLevel) {
+            MachineTickScheduler.get(serverLevel).add(this);
+        }
+    }
+
+    @Override
+    protected void onWakeUp() {
+        // The scheduler dropped this machine when it fell asleep.
+        if (!scheduled && !isRemoved() && level instanceof ServerLevel serverLevel) {
+            MachineTickScheduler.get(serverLevel).add(this);
+        }
+    }
+
     @Override
     public void serverTick() {
         if (isCacheDirty) {
-            updateCapabilityCache();
+            updateDirtyCaches();
         }
 
         if (canActSlow()) {
@@ -229,7 +308,60 @@ public abstract class MachineBlockEntity extends EnderBlockEntity implements Men
 
     public boolean canActSlow() {
         return canAct()
-            && level.getGameTime() % 5 == 0;
+            && isSlowTick();
+    }
+
+    /**
+     * Whether the slow work is due this tick, at least {@link #SLOW_TICKS} ticks after it last ran.
+     */
+    private boolean isSlowTick() {
+        long gameTime = level.getGameTime();
+        if (slowTickDecidedAt != gameTime) {
+            slowTickDecidedAt = gameTime;
+            slowTick = gameTime - lastSlowTick >= SLOW_TICKS;
+            if (slowTick) {
+                lastSlowTick = gameTime;
+            }
+        }
+        return slowTick;
+    }
+
+    /**
+     * Idle machines sleep until they are changed, a neighbor changes or the redstone signal changes.
+     * Neighbors don't report when they gain items or space, so machines with forced IO wake up every {@link #IO_POLL_TICKS} ticks to retry.
+     * Override to stay awake while the machine has work of its own, and return the minimum with the super value.
+     */
+    @Override
+    protected int getSleepTicks() {
+        if (isCacheDirty)
+            return 0;
+
+        // Redstone changes wake the machine through neighborChanged.
+        if (!canAct())
+            return SLEEP_UNTIL_WOKEN;
+
+        return hasForcedIO() ? ticksUntilPoll() : SLEEP_UNTIL_WOKEN;
+    }
+
+    /**
+     * Ticks until the next poll of a sleeping machine.
+     * Polls are counted from the last slow work, so it is due again on the tick the machine wakes.
+     */
+    protected int ticksUntilPoll() {
+        return (int) Math.max(1, IO_POLL_TICKS - (level.getGameTime() - lastSlowTick));
+    }
+
+    /**
+     * Whether any side pushes or pulls items or fluids to a neighbor.
+     */
+    private boolean hasForcedIO() {
+        for (Direction direction : Direction.values()) {
+            if (ioConfig.getMode(direction).canForce()
+                && (itemHandlerCache.isPresent(direction) || fluidHandlerCache.isPresent(direction))) {
+                return true;
+            }
+        }
+        return false;
     }
 
     // endregion
@@ -238,21 +370,68 @@ public abstract class MachineBlockEntity extends EnderBlockEntity implements Men
 
     /**
      * Push and pull resources to/from other blocks.
+     * Pulls take from separate neighbors, so each side pulls on its own.
+     * Pushes share this machine's resources, so they are split between the sides by a {@link SideDistributor}.
      */
     private void forceResources() {
+        List<Direction> itemTargets = new ArrayList<>();
+        List<Direction> fluidTargets = new ArrayList<>();
+        long fluidAmount = 0;
         for (Direction direction : Direction.values()) {
             if (ioConfig.getMode(direction).canForce()) {
-                // TODO: Maybe some kind of resource distributor so that items are transmitted evenly around? rather than taking the order of Direction.values()
-                moveItems(direction);
-                moveFluids(direction);
+                if (itemHandlerCache.isPresent(direction)) {
+                    moveItems(direction, itemTargets);
+                }
+                if (fluidHandlerCache.isPresent(direction)) {
+                    fluidAmount += moveFluids(direction, fluidTargets);
+                }
+            }
+        }
+
+        // Offer no more than we hold, so scarce resources are shared instead of going to the first side.
+        if (!itemTargets.isEmpty()) {
+            int itemAmount = (int) Math.min((long) MachinesConfig.COMMON.ITEM_TRANSFER_QUOTA.get() * itemTargets.size(), getExtractableItemCount());
+            itemDistributor.distribute(itemTargets, itemAmount, this::pushItems);
+        }
+        if (!fluidTargets.isEmpty()) {
+            fluidDistributor.distribute(fluidTargets, (int) Math.min(fluidAmount, getStoredFluid()), this::pushFluids);
+        }
+    }
+
+    /**
+     * Get the number of items that may be pushed out of our inventory, or {@link Integer#MAX_VALUE} if the machine uses another item handler.
+     */
+    private long getExtractableItemCount() {
+        if (inventory == null)
+            return Integer.MAX_VALUE;
+
+        long count = 0;
+        MachineInventoryLayout layout = inventory.getLayout();
+        for (int i = 0; i < inventory.getSlots(); i++) {
+            if (layout.canExtract(i)) {
+                count += inventory.getStackInSlot(i).getCount();
             }
         }
+        return count;
+    }
+
+    /**
+     * Get the fluid stored in all our tanks.
+     */
+    private long getStoredFluid() {
+        return getCapability(ForgeCapabilities.FLUID_HANDLER).resolve().map(handler -> {
+            long stored = 0;
+            for (int i = 0; i < handler.getTanks(); i++) {
+                stored += handler.getFluidInTank(i).getAmount();
+            }
+            return stored;
+        }).orElse(0L);
     }
 
     /**
-     * Move items to and fro via the given side.
+     * Pull items via the given side, and collect it if items can be pushed through it.
      */
-    private void moveItems(Direction side) {
+    private void moveItems(Direction side, List<Direction> pushTargets) {
         // Get our item handler.
         getCapability(ForgeCapabilities.ITEM_HANDLER, side).resolve().ifPresent(selfHandler -> {
             // Get neighboring item handler.
@@ -264,59 +443,127 @@ public abstract class MachineBlockEntity extends EnderBlockEntity implements Men
 
                 // Output items to the other provider if enabled.
                 if (mode.canPush()) {
-                    moveItems(selfHandler, otherHandler.get());
+                    pushTargets.add(side);
                 }
 
                 // Insert items from the other provider if enabled.
                 if (mode.canPull()) {
-                    moveItems(otherHandler.get(), selfHandler);
+                    moveItems(otherHandler.get(), selfHandler, MachinesConfig.COMMON.ITEM_TRANSFER_QUOTA.get(),
+                        getItemTransfer(itemPulls, side));
                 }
             }
         });
     }
 
     /**
-     * Move items from one item handler to the other.
+     * Push up to amount items via the given side.
      */
-    protected void moveItems(IItemHandler from, IItemHandler to) {
-        for (int i = 0; i < from.getSlots(); i++) {
-            ItemStack extracted = from.extractItem(i, 1, true);
-            if (!extracted.isEmpty()) {
-                for (int j = 0; j < to.getSlots(); j++) {
-                    ItemStack inserted = to.insertItem(j, extracted, false);
-                    if (inserted.isEmpty()) {
-                        from.extractItem(i, 1, false);
-                        return;
-                    }
-                }
-            }
+    private int pushItems(Direction side, int amount) {
+        Optional<IItemHandler> selfHandler = getCapability(ForgeCapabilities.ITEM_HANDLER, side).resolve();
+        Optional<IItemHandler> otherHandler = getNeighboringItemHandler(side).resolve();
+        if (selfHandler.isEmpty() || otherHandler.isEmpty())
+            return 0;
+        return moveItems(selfHandler.get(), otherHandler.get(), amount, getItemTransfer(itemPushes, side));
+    }
+
+    private static ItemTransfer getItemTransfer(ItemTransfer[] transfers, Direction side) {
+        ItemTransfer transfer = transfers[side.ordinal()];
+        if (transfer == null) {
+            transfer = new ItemTransfer();
+            transfers[side.ordinal()] = transfer;
         }
+        return transfer;
     }
 
     /**
-     * Move fluids to and fro via the given side.
+     * Move up to quota items from one item handler to the other.
+     * @return the number of items moved
      */
-    private void moveFluids(Direction side) {
+    protected int moveItems(IItemHandler from, IItemHandler to, int quota, ItemTransfer transfer) {
+        return transfer.transfer(from, to, quota);
+    }
+
+    /**
+     * Pull fluids via the given side, or collect it if fluids can be pushed through it.
+     * @return the amount to push through the side
+     */
+    private int moveFluids(Direction side, List<Direction> pushTargets) {
+        // Skip sides whose neighbor refused recently.
+        if (fluidBackoff[side.ordinal()] > 0) {
+            fluidBackoff[side.ordinal()]--;
+            return 0;
+        }
+
         // Get our fluid handler
-        getCapability(ForgeCapabilities.FLUID_HANDLER, side).resolve().ifPresent(selfHandler -> {
-            // Get neighboring fluid handler.
-            Optional<IFluidHandler> otherHandler = getNeighboringFluidHandler(side).resolve();
+        Optional<IFluidHandler> selfHandler = getCapability(ForgeCapabilities.FLUID_HANDLER, side).resolve();
+        if (selfHandler.isEmpty())
+            return 0;
 
-            if (otherHandler.isPresent()) {
-                // Get side config
-                IOMode mode = ioConfig.getMode(side);
+        // Get neighboring fluid handler.
+        Optional<IFluidHandler> otherHandler = getNeighboringFluidHandler(side).resolve();
+        if (otherHandler.isEmpty())
+            return 0;
 
-                // Test if we have fluid.
-                FluidStack stack = selfHandler.drain(100, FluidAction.SIMULATE);
+        // Get side config
+        IOMode mode = ioConfig.getMode(side);
 
-                // If we have no fluids, see if we can pull. Otherwise, push.
-                if (stack.isEmpty() && mode.canPull()) {
-                    moveFluids(otherHandler.get(), selfHandler, 100);
-                } else if (mode.canPush()) {
-                    moveFluids(selfHandler, otherHandler.get(), 100);
-                }
-            }
-        });
+        // Measure our tanks, rather than simulating a drain.
+        long capacity = 0;
+        long stored = 0;
+        IFluidHandler handler = selfHandler.get();
+        for (int i = 0; i < handler.getTanks(); i++) {
+            capacity += handler.getTankCapacity(i);
+            stored += handler.getFluidInTank(i).getAmount();
+        }
+
+        // If we have no fluids or can't push, see if we can pull. Otherwise, push.
+        if (mode.canPull() && stored < capacity && (stored == 0 || !mode.canPush())) {
+            int rate = getFluidTransferRate(side, capacity, capacity - stored);
+            onFluidTransfer(side, moveFluids(otherHandler.get(), handler, rate));
+        } else if (stored > 0 && mode.canPush()) {
+            pushTargets.add(side);
+            return getFluidTransferRate(side, capacity, stored);
+        }
+        return 0;
+    }
+
+    /**
+     * Get the amount of fluid to move through a side at once.
+     * This is a tenth of our tanks' capacity, at least {@link #FLUID_TRANSFER_RATE}.
+     * Bursts past that to move the amount over half of the tanks at once, when the neighbor takes it.
+     * @param available the amount stored when pushing, or the space left when pulling
+     */
+    private int getFluidTransferRate(Direction side, long capacity, long available) {
+        long rate = Math.max(FLUID_TRANSFER_RATE, capacity / 10);
+        long burst = available - capacity / 2;
+        return (int) Math.min(Math.max(rate, burst), ioConfig.getFluidTransferLimit(side));
+    }
+
+    /**
+     * Push up to amount mB via the given side.
+     */
+    private int pushFluids(Direction side, int amount) {
+        Optional<IFluidHandler> selfHandler = getCapability(ForgeCapabilities.FLUID_HANDLER, side).resolve();
+        Optional<IFluidHandler> otherHandler = getNeighboringFluidHandler(side).resolve();
+        if (selfHandler.isEmpty() || otherHandler.isEmpty())
+            return 0;
+
+        int moved = moveFluids(selfHandler.get(), otherHandler.get(), Math.min(amount, ioConfig.getFluidTransferLimit(side)));
+        onFluidTransfer(side, moved);
+        return moved;
+    }
+
+    /**
+     * Back off from a side when nothing was moved, doubling the back-off each time it keeps refusing.
+     */
+    private void onFluidTransfer(Direction side, int moved) {
+        int index = side.ordinal();
+        if (moved > 0) {
+            fluidBackoffLength[index] = 0;
+        } else {
+            fluidBackoffLength[index] = Math.min(Math.max(1, fluidBackoffLength[index] * 2), MAX_FLUID_BACKOFF);
+            fluidBackoff[index] = fluidBackoffLength[index];
+        }
     }
 
     /**
@@ -338,58 +585,74 @@ public abstract class MachineBlockEntity extends EnderBlockEntity implements Men
     // region Neighboring Capabilities
 
     protected LazyOptional<IItemHandler> getNeighboringItemHandler(Direction side) {
-        if (!itemHandlerCache.containsKey(side))
-            return LazyOptional.empty();
         return itemHandlerCache.get(side);
     }
 
     protected LazyOptional<IFluidHandler> getNeighboringFluidHandler(Direction side) {
-        if (!fluidHandlerCache.containsKey(side))
-            return LazyOptional.empty();
         return fluidHandlerCache.get(side);
     }
 
     /**
-     * Add invalidation handler to a capability to be notified if it is removed.
+     * Add a cache of a capability of the neighbors.
+     * Call this from a field initializer or the constructor, to implement new capability caches on the machine.
      */
-    protected <T> LazyOptional<T> addInvalidationListener(LazyOptional<T> capability) {
-        if (capability.isPresent())
-            capability.addListener(this::markCapabilityCacheDirty);
-        return capability;
+    protected <T> NeighborCapabilityCache<T> addNeighborCache(Capability<T> capability) {
+        NeighborCapabilityCache<T> cache = new NeighborCapabilityCache<>(capability, this::markCapabilityCacheDirty);
+        neighborCaches.add(cache);
+        return cache;
     }
 
     /**
      * Mark the capability cache as dirty. Will be updated next tick.
      */
-    private <T> void markCapabilityCacheDirty(LazyOptional<T> capability) {
+    private void markCapabilityCacheDirty() {
         isCacheDirty = true;
+        wakeUp();
     }
 
     /**
-     * Update capability cache
+     * Update the capability cache of all sides.
      */
     public void updateCapabilityCache() {
-        // Refresh capability cache.
-        clearCaches();
-        for (Direction direction : Direction.values()) {
-            BlockEntity neighbor = level.getBlockEntity(worldPosition.relative(direction));
-            populateCaches(direction, neighbor);
+        for (NeighborCapabilityCache<?> cache : neighborCaches) {
+            cache.markAllDirty();
         }
+        updateDirtyCaches();
     }
 
-    // Override the next two to implement new capability caches on the machine.
-    protected void clearCaches() {
-        itemHandlerCache.clear();
-        fluidHandlerCache.clear();
+    /**
+     * Update the capability cache of the side facing the neighbor, or of all sides if it isn't adjacent.
+     */
+    public void updateCapabilityCache(BlockPos neighborPos) {
+        Direction side = Direction.fromNormal(neighborPos.getX() - worldPosition.getX(), neighborPos.getY() - worldPosition.getY(), neighborPos.getZ() - worldPosition.getZ());
+        if (side == null) {
+            updateCapabilityCache();
+            return;
+        }
+
+        for (NeighborCapabilityCache<?> cache : neighborCaches) {
+            cache.markDirty(side);
+        }
+        updateDirtyCaches();
     }
 
-    protected void populateCaches(Direction direction, @Nullable BlockEntity neighbor) {
-        if (neighbor != null) {
-            itemHandlerCache.put(direction, addInvalidationListener(neighbor.getCapability(ForgeCapabilities.ITEM_HANDLER, direction.getOpposite())));
-            fluidHandlerCache.put(direction, addInvalidationListener(neighbor.getCapability(ForgeCapabilities.FLUID_HANDLER, direction.getOpposite())));
-        } else {
-            itemHandlerCache.put(direction, LazyOptional.empty());
-            fluidHandlerCache.put(direction, LazyOptional.empty());
+    /**
+     * Query the capabilities that were invalidated again, looking up each neighbor once.
+     */
+    private void updateDirtyCaches() {
+        isCacheDirty = false;
+        for (Direction direction : Direction.values()) {
+            BlockEntity neighbor = null;
+            boolean neighborFound = false;
+            for (NeighborCapabilityCache<?> cache : neighborCaches) {
+                if (cache.isDirty(direction)) {
+                    if (!neighborFound) {
+                        neighbor = level.getBlockEntity(worldPosition.relative(direction));
+                        neighborFound = true;
+                    }
+                    cache.update(direction, neighbor);
+                }
+            }
         }
     }
 
@@ -432,6 +695,9 @@ public abstract class MachineBlockEntity extends EnderBlockEntity implements Men
         }
 
         // Mark capability cache dirty
+        for (NeighborCapabilityCache<?> cache : neighborCaches) {
+            cache.markAllDirty();
+        }
         isCacheDirty = true;
 
         super.load(pTag);
@@ -457,4 +723,12 @@ public abstract class MachineBlockEntity extends EnderBlockEntity implements Men
     public void setRedstoneControl(RedstoneControl redstoneControl) {
         this.redstoneControl = redstoneControl;
     }
+
+    /**
+     * Get the data slot the GUI submits redstone control edits to, or null if redstone control is not supported.
+     */
+    @Nullable
+    public EnumDataSlot<RedstoneControl> getRedstoneControlDataSlot() {
+        return redstoneControlDataSlot;
+    }
 }
@@ -0,0 +1,235 @@
+package com.enderio.machines.common.blockentity.base;
+
+import com.enderio.EnderIO;
+import com.enderio.core.common.blockentity.EnderBlockEntity;
+import com.enderio.machines.common.config.MachinesConfig;
+import net.minecraft.CrashReport;
+import net.minecraft.CrashReportCategory;
+import net.minecraft.ReportedException;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.util.profiling.ProfilerFiller;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.entity.BlockEntityType;
+import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.event.level.LevelEvent;
+import net.minecraftforge.eventbus.api.EventPriority;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * Ticks all {@link MachineBlockEntity}s of a level on the server, instead of vanilla's block entity tickers.
+ * Machines are ticked grouped by type, at the end of the level tick and before the sync flush.
+ * Ticking stops when the configured budget is used up. The next tick resumes with the machines that were left out, so every machine gets its turn.
+ * Only awake machines are visited. Machines that fall asleep are dropped, and are added back by {@link MachineBlockEntity#wakeUp()} or when their sleep ends.
+ */
+@Mod.EventBusSubscriber(modid = EnderIO.MODID)
+public class MachineTickScheduler {
+    private static final Map<Level, MachineTickScheduler> SCHEDULERS = new HashMap<>();
+
+    /**
+     * How many machines are ticked between checks of the budget.
+     */
+    private static final int BUDGET_CHECK_INTERVAL = 8;
+
+    /**
+     * The awake machines, grouped by type.
+     */
+    private final Map<BlockEntityType<?>, Set<MachineBlockEntity>> machinesByType = new LinkedHashMap<>();
+
+    /**
+     * Awake machines in ticking order, rebuilt from {@link #machinesByType} when machines are added or removed.
+     */
+    private final List<MachineBlockEntity> machines = new ArrayList<>();
+    private boolean machinesDirty;
+
+    /**
+     * Index of the first machine to tick next tick.
+     */
+    private int cursor;
+
+    /**
+     * Machines sleeping for a fixed time, by the game time they wake up at.
+     * Entries of machines that were woken early or fell asleep again are skipped when polled.
+     */
+    private final PriorityQueue<Sleeper> sleepers = new PriorityQueue<>(Comparator.comparingLong(Sleeper::wakeTime));
+
+    public static MachineTickScheduler get(ServerLevel level) {
+        return SCHEDULERS.computeIfAbsent(level, l -> new MachineTickScheduler());
+    }
+
+    /**
+     * Start ticking the machine, if it isn't already.
+     */
+    void add(MachineBlockEntity machine) {
+        if (!machine.scheduled) {
+            machine.scheduled = true;
+            machinesByType.computeIfAbsent(machine.getType(), t -> new LinkedHashSet<>()).add(machine);
+            machinesDirty = true;
+        }
+    }
+
+    /**
+     * Stop ticking a machine that fell asleep, and queue it to wake up unless only a change can wake it.
+     */
+    private void sleep(MachineBlockEntity machine, long gameTime) {
+        machine.scheduled = false;
+        Set<MachineBlockEntity> group = machinesByType.get(machine.getType());
+        if (group != null) {
+            group.remove(machine);
+        }
+        machinesDirty = true;
+
+        long wakeTime = machine.getSleepUntil();
+        if (wakeTime - gameTime < EnderBlockEntity.SLEEP_UNTIL_WOKEN) {
+            sleepers.add(new Sleeper(machine, wakeTime));
+        }
+    }
+
+    /**
+     * Add back the machines whose sleep has ended.
+     */
+    private void wakeSleepers(long gameTime) {
+        while (!sleepers.isEmpty() && sleepers.peek().wakeTime() <= gameTime) {
+            Sleeper sleeper = sleepers.poll();
+            MachineBlockEntity machine = sleeper.machine();
+            if (!machine.isRemoved() && !machine.scheduled && machine.getSleepUntil() == sleeper.wakeTime()) {
+                add(machine);
+            }
+        }
+    }
+
+    private void rebuild() {
+        // Remember the first machine that was left out last tick, to start there again.
+        MachineBlockEntity next = null;
+        for (int i = 0; i < machines.size(); i++) {
+            MachineBlockEntity machine = machines.get((cursor + i) % machines.size());
+            if (machine.scheduled && !machine.isRemoved()) {
+                next = machine;
+                break;
+            }
+        }
+
+        machines.clear();
+        for (Set<MachineBlockEntity> group : machinesByType.values()) {
+            group.removeIf(MachineBlockEntity::isRemoved);
+            machines.addAll(group);
+        }
+        machinesByType.values().removeIf(Set::isEmpty);
+        machinesDirty = false;
+
+        cursor = next != null ? Math.max(machines.indexOf(next), 0) : 0;
+    }
+
+    private void tick(ServerLevel level) {
+        long gameTime = level.getGameTime();
+        wakeSleepers(gameTime);
+
+        if (machinesDirty) {
+            rebuild();
+        }
+
+        int count = machines.size();
+        if (count == 0)
+            return;
+
+        long budget = getBudgetNanos(level);
+        long deadline = System.nanoTime() + budget;
+
+        ProfilerFiller profiler = level.getProfiler();
+        BlockEntityType<?> currentType = null;
+        int ticked = 0;
+        while (ticked < count) {
+            MachineBlockEntity machine = machines.get((cursor + ticked) % count);
+            ticked++;
+
+            if (machine.isRemoved()) {
+                machine.scheduled = false;
+                machinesDirty = true;
+                continue;
+            }
+
+            if (machine.getType() != currentType) {
+                if (currentType != null) {
+                    profiler.pop();
+                }
+                currentType = machine.getType();
+                BlockEntityType<?> type = currentType;
+                profiler.push(() -> String.valueOf(BlockEntityType.getKey(type)));
+            }
+
+            tickMachine(level, machine);
+
+            if (machine.isSleeping()) {
+                sleep(machine, gameTime);
+            }
+
+            if (budget > 0 && ticked % BUDGET_CHECK_INTERVAL == 0 && System.nanoTime() > deadline)
+                break;
+        }
+        if (currentType != null) {
+            profiler.pop();
+        }
+
+        // Start with the machines that were left out.
+        cursor = (cursor + ticked) % count;
+    }
+
+    private static void tickMachine(ServerLevel level, MachineBlockEntity machine) {
+        // Same checks as vanilla's block entity ticker.
+        if (!level.shouldTickBlocksAt(ChunkPos.asLong(machine.getBlockPos())) || !machine.getType().isValid(machine.getBlockState()))
+            return;
+
+        try {
+            EnderBlockEntity.tick(level, machine.getBlockPos(), machine.getBlockState(), machine);
+        } catch (Throwable throwable) {
+            CrashReport crashReport = CrashReport.forThrowable(throwable, "Ticking block entity");
+            CrashReportCategory category = crashReport.addCategory("Block entity being ticked");
+            machine.fillCrashReportCategory(category);
+            throw new ReportedException(crashReport);
+        }
+    }
+
+    /**
+     * @return the budget in nanoseconds, or 0 if unlimited.
+     */
+    private static long getBudgetNanos(ServerLevel level) {
+        double budgetMillis = MachinesConfig.COMMON.TICK_BUDGET.get();
+
+        // Leave more time to the rest of the server while it can't keep up.
+        if (level.getServer().getAverageTickTime() > 50) {
+            budgetMillis /= 2;
+        }
+        return (long) (budgetMillis * 1_000_000);
+    }
+
+    // Run before the SyncScheduler, so changes are synced in the same tick.
+    @SubscribeEvent(priority = EventPriority.HIGH)
+    public static void onLevelTick(TickEvent.LevelTickEvent event) {
+        if (event.phase == TickEvent.Phase.END && event.level instanceof ServerLevel level) {
+            MachineTickScheduler scheduler = SCHEDULERS.get(level);
+            if (scheduler != null) {
+                level.getProfiler().push("enderio_machines");
+                scheduler.tick(level);
+                level.getProfiler().pop();
+            }
+        }
+    }
+
+    private record Sleeper(MachineBlockEntity machine, long wakeTime) {}
+
+    @SubscribeEvent
+    public static void onLevelUnload(LevelEvent.Unload event) {
+        SCHEDULERS.remove(event.getLevel());
+    }
+}
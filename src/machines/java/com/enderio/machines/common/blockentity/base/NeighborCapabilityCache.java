@@ -0,0 +1,85 @@
+package com.enderio.machines.common.blockentity.base;
+
+import net.minecraft.core.Direction;
+import net.minecraft.world.level.block.entity.BlockEntity;
+import net.minecraftforge.common.capabilities.Capability;
+import net.minecraftforge.common.util.LazyOptional;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * One capability of each neighbor of a machine, indexed by {@link Direction#ordinal()}.
+ * Each side listens for the invalidation of its own capability, so only that side is queried again.
+ * Sides are kept as bitmasks, so checking for a neighbor is a bit test.
+ */
+public class NeighborCapabilityCache<T> {
+    private final Capability<T> capability;
+    private final Runnable onInvalidated;
+
+    @SuppressWarnings("unchecked")
+    private final LazyOptional<T>[] capabilities = new LazyOptional[6];
+
+    private int presentSides;
+    private int dirtySides = 0b111111;
+
+    public NeighborCapabilityCache(Capability<T> capability, Runnable onInvalidated) {
+        this.capability = capability;
+        this.onInvalidated = onInvalidated;
+    }
+
+    public LazyOptional<T> get(Direction side) {
+        LazyOptional<T> cached = capabilities[side.ordinal()];
+        return cached != null ? cached : LazyOptional.empty();
+    }
+
+    /**
+     * Whether the neighbor on the side has the capability.
+     */
+    public boolean isPresent(Direction side) {
+        return (presentSides & 1 << side.ordinal()) != 0;
+    }
+
+    /**
+     * Whether any neighbor has the capability.
+     */
+    public boolean isAnyPresent() {
+        return presentSides != 0;
+    }
+
+    public boolean isDirty(Direction side) {
+        return (dirtySides & 1 << side.ordinal()) != 0;
+    }
+
+    public void markDirty(Direction side) {
+        dirtySides |= 1 << side.ordinal();
+    }
+
+    public void markAllDirty() {
+        dirtySides = 0b111111;
+    }
+
+    /**
+     * Query the capability of the side's neighbor again.
+     */
+    public void update(Direction side, @Nullable BlockEntity neighbor) {
+        int index = side.ordinal();
+        int bit = 1 << index;
+        dirtySides &= ~bit;
+
+        LazyOptional<T> capability = neighbor != null ? neighbor.getCapability(this.capability, side.getOpposite()) : LazyOptional.empty();
+        capabilities[index] = capability;
+        if (capability.isPresent()) {
+            presentSides |= bit;
+            capability.addListener(invalidated -> {
+                // Ignore the listeners of capabilities that were replaced since.
+                if (capabilities[index] == invalidated) {
+                    capabilities[index] = LazyOptional.empty();
+                    presentSides &= ~bit;
+                    dirtySides |= bit;
+                    onInvalidated.run();
+                }
+            });
+        } else {
+            presentSides &= ~bit;
+        }
+    }
+}
@@ -30,6 +30,29 @@ public abstract class PowerGeneratingMachineEntity extends PoweredMachineEntity
         super.serverTick();
     }
 
+    @Override
+    protected int getSleepTicks() {
+        return isGenerating() ? 0 : super.getSleepTicks();
+    }
+
+    @Override
+    protected void catchUp(int ticks) {
+        long generated = (long) getGenerationRate() * generateFor(ticks);
+        if (generated > 0) {
+            getEnergyStorage().addEnergy((int) Math.min(Integer.MAX_VALUE, generated));
+        }
+        super.catchUp(ticks);
+    }
+
+    /**
+     * Run the generator for up to the given number of ticks at once, after it was unloaded.
+     * Generators that can't tell how long they would have run return 0.
+     * @return the number of ticks energy was generated for
+     */
+    protected int generateFor(int ticks) {
+        return 0;
+    }
+
     public abstract boolean isGenerating();
 
     public abstract int getGenerationRate();
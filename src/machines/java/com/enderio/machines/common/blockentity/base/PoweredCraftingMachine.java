@@ -1,31 +1,97 @@
 package com.enderio.machines.common.blockentity.base;
 
+import com.enderio.api.capacitor.CapacitorModifier;
 import com.enderio.api.capacitor.ICapacitorScalable;
+import com.enderio.api.capacitor.LinearScalable;
 import com.enderio.machines.common.blockentity.task.PoweredCraftingTask;
+import com.enderio.machines.common.io.item.MachineInventoryLayout;
 import com.enderio.machines.common.recipe.MachineRecipe;
+import com.enderio.machines.common.recipe.RecipeIndex;
 import net.minecraft.core.BlockPos;
 import net.minecraft.nbt.CompoundTag;
+import net.minecraft.util.Mth;
 import net.minecraft.world.Container;
+import net.minecraft.world.item.ItemStack;
 import net.minecraft.world.item.crafting.RecipeType;
 import net.minecraft.world.level.block.entity.BlockEntityType;
 import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.levelgen.RandomSupport;
+import net.minecraftforge.items.ItemHandlerHelper;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 /**
  * Generic class for a machine that performs crafting recipes.
  */
 public abstract class PoweredCraftingMachine<R extends MachineRecipe<C>, C extends Container> extends PoweredTaskMachineEntity<PoweredCraftingTask<R, C>> {
+    /**
+     * How many recipes a task may craft at once.
+     */
+    public static final LinearScalable BATCH_SIZE = new LinearScalable(CapacitorModifier.PARALLEL, () -> 1f);
+
     /**
      * The recipe type this machine can accept.
      */
     protected final RecipeType<R> recipeType;
 
+    /**
+     * How many input signatures known to match no recipe are remembered.
+     */
+    private static final int KNOWN_MISSES = 4;
+
+    /**
+     * The index the recipe caches were filled from. A different index means the recipes were reloaded.
+     */
+    @Nullable
+    private RecipeIndex<C, R> cachedIndex;
+
+    /**
+     * The last recipe found, tested first on the next search.
+     */
+    @Nullable
+    private R lastRecipe;
+
+    /**
+     * Input signatures that matched no recipe, most recent first.
+     */
+    private final Deque<InputSignature> knownMisses = new ArrayDeque<>(KNOWN_MISSES);
+
+    /**
+     * The slots recipes are matched against, or null until the inventory layout is read.
+     */
+    @Nullable
+    private int[] inputSlots;
+
+    /**
+     * The largest item count a recipe of the cached index requires from one slot.
+     */
+    private int maxIngredientCount = 1;
+
+    private final Supplier<Integer> batchSize;
+
+    /**
+     * Generates the seeds of new tasks' random sources. Saved, so rolls are reproducible across reloads.
+     */
+    private long taskSeed;
+
     public PoweredCraftingMachine(RecipeType<R> recipeType, ICapacitorScalable capacity, ICapacitorScalable transferRate, ICapacitorScalable usageRate,
         BlockEntityType<?> type, BlockPos worldPosition, BlockState blockState) {
         super(capacity, transferRate, usageRate, type, worldPosition, blockState);
         this.recipeType = recipeType;
+        this.batchSize = BATCH_SIZE.scaleI(this::getCapacitorData);
+        this.taskSeed = Mth.getSeed(worldPosition);
+    }
+
+    /**
+     * Get how many recipes a task may craft at once, at least 1.
+     */
+    public int getMaxBatchSize() {
+        return Math.max(1, batchSize.get());
     }
 
     @Override
@@ -42,8 +108,12 @@ public abstract class PoweredCraftingMachine<R extends MachineRecipe<C>, C exten
     @Nullable
     @Override
     protected PoweredCraftingTask<R, C> getNewTask() {
-        return findRecipe()
-            .map(this::createTask)
+        return findCachedRecipe()
+            .map(recipe -> {
+                PoweredCraftingTask<R, C> task = createTask(recipe);
+                task.setSeed(nextTaskSeed());
+                return task;
+            })
             .orElse(null);
     }
 
@@ -55,13 +125,147 @@ public abstract class PoweredCraftingMachine<R extends MachineRecipe<C>, C exten
         return task;
     }
 
+    // region Random
+
+    /**
+     * Set the seed new tasks' random sources are generated from, to reproduce a sequence of crafts.
+     */
+    public void setTaskSeed(long taskSeed) {
+        this.taskSeed = taskSeed;
+    }
+
+    private long nextTaskSeed() {
+        taskSeed += RandomSupport.GOLDEN_RATIO_64;
+        return RandomSupport.mixStafford13(taskSeed);
+    }
+
+    // endregion
+
+    // region Recipe cache
+
+    /**
+     * Find a recipe, trying the last recipe found first and skipping inputs known to match nothing.
+     */
+    protected Optional<R> findCachedRecipe() {
+        RecipeIndex<C, R> index = RecipeIndex.get(level, recipeType);
+        if (index != cachedIndex) {
+            invalidateRecipeCache();
+            cachedIndex = index;
+            maxIngredientCount = Math.max(1, getMaxIngredientCount(index));
+        }
+
+        C container = getContainer();
+        if (lastRecipe != null && canReuseRecipe(lastRecipe) && lastRecipe.matches(container, level))
+            return Optional.of(lastRecipe);
+
+        int[] slots = getInputSlots();
+        int mode = getRecipeMode();
+        for (InputSignature miss : knownMisses) {
+            if (miss.matches(container, slots, mode, maxIngredientCount))
+                return Optional.empty();
+        }
+
+        Optional<R> recipe = findRecipe();
+        if (recipe.isPresent()) {
+            lastRecipe = recipe.get();
+        } else {
+            if (knownMisses.size() >= KNOWN_MISSES) {
+                knownMisses.removeLast();
+            }
+            knownMisses.addFirst(InputSignature.of(container, slots, mode, maxIngredientCount));
+        }
+        return recipe;
+    }
+
+    /**
+     * Whether the last recipe found may be used again without a full search, if it still matches.
+     * Override if another recipe takes priority over it for some inputs.
+     */
+    protected boolean canReuseRecipe(R recipe) {
+        return true;
+    }
+
+    /**
+     * Get the largest item count a recipe of the index requires from one slot.
+     * Known misses treat larger counts alike, so override if recipes require more than one item per slot.
+     */
+    protected int getMaxIngredientCount(RecipeIndex<C, R> index) {
+        return 1;
+    }
+
+    /**
+     * Get a value for the machine state other than the inputs that changes which recipes match, like a machine mode.
+     * Known misses only apply while it is unchanged.
+     */
+    protected int getRecipeMode() {
+        return 0;
+    }
+
+    /**
+     * Forget the last recipe and the known misses.
+     * Call when something other than the container contents changes which recipes match, like a machine mode.
+     */
+    protected void invalidateRecipeCache() {
+        lastRecipe = null;
+        knownMisses.clear();
+    }
+
+    /**
+     * Get the container slots recipes are matched against: the externally insertable slots, except the capacitor.
+     */
+    private int[] getInputSlots() {
+        if (inputSlots == null) {
+            MachineInventoryLayout layout = getInventoryLayout();
+            int slotCount = layout == null ? 0 : Math.min(layout.getSlotCount(), getContainer().getContainerSize());
+            int[] slots = new int[slotCount];
+            int count = 0;
+            for (int slot = 0; slot < slotCount; slot++) {
+                if (layout.canInsert(slot) && slot != layout.getCapacitorSlot()) {
+                    slots[count++] = slot;
+                }
+            }
+            inputSlots = Arrays.copyOf(slots, count);
+        }
+        return inputSlots;
+    }
+
+    /**
+     * The items of a machine's input slots, ignoring counts above what any recipe requires, and the machine's recipe mode.
+     */
+    private record InputSignature(int mode, ItemStack[] inputs) {
+        static InputSignature of(Container container, int[] slots, int mode, int maxCount) {
+            ItemStack[] inputs = new ItemStack[slots.length];
+            for (int i = 0; i < slots.length; i++) {
+                ItemStack stack = container.getItem(slots[i]);
+                inputs[i] = stack.isEmpty() ? ItemStack.EMPTY : ItemHandlerHelper.copyStackWithSize(stack, Math.min(stack.getCount(), maxCount));
+            }
+            return new InputSignature(mode, inputs);
+        }
+
+        boolean matches(Container container, int[] slots, int mode, int maxCount) {
+            if (this.mode != mode || inputs.length != slots.length)
+                return false;
+
+            for (int i = 0; i < slots.length; i++) {
+                ItemStack stack = container.getItem(slots[i]);
+                ItemStack input = inputs[i];
+                if (stack.isEmpty() != input.isEmpty())
+                    return false;
+                if (!stack.isEmpty() && (Math.min(stack.getCount(), maxCount) != input.getCount() || !ItemStack.isSameItemSameTags(stack, input)))
+                    return false;
+            }
+            return true;
+        }
+    }
+
+    // endregion
+
     /**
      * Find a recipe of this machine's type.
      */
     protected Optional<R> findRecipe() {
-        return level
-            .getRecipeManager()
-            .getRecipeFor(recipeType, getContainer(), level);
+        return RecipeIndex.get(level, recipeType)
+            .getRecipeFor(getContainer(), level);
     }
 
     /**
@@ -74,4 +278,18 @@ public abstract class PoweredCraftingMachine<R extends MachineRecipe<C>, C exten
      * Get the container used for crafting.
      */
     protected abstract C getContainer();
+
+    @Override
+    public void saveAdditional(CompoundTag pTag) {
+        super.saveAdditional(pTag);
+        pTag.putLong("TaskSeed", taskSeed);
+    }
+
+    @Override
+    public void load(CompoundTag pTag) {
+        super.load(pTag);
+        if (pTag.contains("TaskSeed")) {
+            taskSeed = pTag.getLong("TaskSeed");
+        }
+    }
 }
@@ -6,7 +6,10 @@ import com.enderio.api.io.energy.EnergyIOMode;
 import com.enderio.base.common.capacitor.CapacitorUtil;
 import com.enderio.base.common.capacitor.DefaultCapacitorData;
 import com.enderio.core.common.sync.SyncMode;
+import com.enderio.core.common.sync.SyncRate;
 import com.enderio.machines.common.blockentity.sync.MachineEnergyDataSlot;
+import com.enderio.machines.common.config.MachinesConfig;
+import com.enderio.machines.common.io.SideDistributor;
 import com.enderio.machines.common.io.energy.IMachineEnergyStorage;
 import com.enderio.machines.common.io.energy.ImmutableMachineEnergyStorage;
 import com.enderio.machines.common.io.energy.MachineEnergyStorage;
@@ -15,7 +18,6 @@ import net.minecraft.core.BlockPos;
 import net.minecraft.core.Direction;
 import net.minecraft.nbt.CompoundTag;
 import net.minecraft.world.item.ItemStack;
-import net.minecraft.world.level.block.entity.BlockEntity;
 import net.minecraft.world.level.block.entity.BlockEntityType;
 import net.minecraft.world.level.block.state.BlockState;
 import net.minecraftforge.common.capabilities.Capability;
@@ -24,7 +26,8 @@ import net.minecraftforge.common.util.LazyOptional;
 import net.minecraftforge.energy.IEnergyStorage;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.EnumMap;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 import java.util.function.Supplier;
 
@@ -47,11 +50,34 @@ public abstract class PoweredMachineEntity extends MachineBlockEntity {
     private final LazyOptional<MachineEnergyStorage> energyStorageCap;
 
     // Cache for external energy interaction
-    private final EnumMap<Direction, LazyOptional<IEnergyStorage>> energyHandlerCache = new EnumMap<>(Direction.class);
+    private final NeighborCapabilityCache<IEnergyStorage> energyHandlerCache = addNeighborCache(ForgeCapabilities.ENERGY);
+    private final SideDistributor energyDistributor = new SideDistributor();
 
     private ICapacitorData cachedCapacitorData = DefaultCapacitorData.NONE;
     private boolean capacitorCacheDirty;
 
+    /**
+     * Whether energy was pushed to a neighbor this tick.
+     */
+    private boolean pushedEnergy;
+
+    /**
+     * The game time this machine was last saved at, or -1.
+     */
+    private long savedGameTime = -1;
+
+    /**
+     * Ticks spent unloaded that are applied on the next server tick.
+     */
+    private int catchUpTicks;
+
+    private static final long NOT_LEAKED = Long.MIN_VALUE;
+
+    /**
+     * The game time energy last leaked at, counted from the first tick.
+     */
+    private long lastLeakTick = NOT_LEAKED;
+
     public PoweredMachineEntity(EnergyIOMode energyIOMode, ICapacitorScalable capacity, ICapacitorScalable transferRate, ICapacitorScalable usageRate, BlockEntityType<?> type, BlockPos worldPosition, BlockState blockState) {
         super(type, worldPosition, blockState);
 
@@ -67,16 +93,29 @@ public abstract class PoweredMachineEntity extends MachineBlockEntity {
         capacitorCacheDirty = true;
 
         // new new way of syncing energy storage.
-        addDataSlot(new MachineEnergyDataSlot(this::getEnergyStorage, storage -> clientEnergyStorage = storage, SyncMode.GUI));
+        addDataSlot(new MachineEnergyDataSlot(this::getEnergyStorage, storage -> clientEnergyStorage = storage, SyncMode.GUI).withSyncRate(SyncRate.SLOW));
     }
 
     @Override
     public void serverTick() {
-        // Leak energy once per second
-        if (level.getGameTime() % 20 == 0) {
+        // Apply the time spent unloaded. Done on the first tick rather than in onLoad, as neighbors may not be loaded yet then.
+        if (catchUpTicks > 0) {
+            int ticks = catchUpTicks;
+            catchUpTicks = 0;
+            catchUp(ticks);
+        }
+
+        // Leak energy once per second. Timed from the last leak, so a machine the scheduler deferred leaks on its next turn.
+        long gameTime = level.getGameTime();
+        if (lastLeakTick == NOT_LEAKED) {
+            lastLeakTick = gameTime;
+        } else if (gameTime - lastLeakTick >= 20) {
+            lastLeakTick = gameTime;
             energyStorage.takeEnergy(getEnergyLeakPerSecond());
         }
 
+        pushedEnergy = false;
+
         // If redstone config is not enabled.
         if (canAct()) {
             // Push energy to other blocks.
@@ -86,6 +125,34 @@ public abstract class PoweredMachineEntity extends MachineBlockEntity {
         super.serverTick();
     }
 
+    @Override
+    protected int getSleepTicks() {
+        int sleepTicks = super.getSleepTicks();
+
+        // Keep pushing while neighbors accept energy.
+        if (pushedEnergy)
+            return 0;
+
+        // Wake up in time for the leak.
+        if (getEnergyLeakPerSecond() > 0 && energyStorage.getEnergyStored() > 0)
+            sleepTicks = Math.min(sleepTicks, ticksUntilLeak());
+
+        // Neighbors don't report when they can accept energy again.
+        if (canAct() && energyStorage.getEnergyStored() > 0 && energyStorage.getIOMode().canOutput() && hasEnergyNeighbor())
+            sleepTicks = Math.min(sleepTicks, ticksUntilPoll());
+
+        return sleepTicks;
+    }
+
+    /**
+     * Ticks until the next energy leak.
+     */
+    private int ticksUntilLeak() {
+        if (lastLeakTick == NOT_LEAKED)
+            return 1;
+        return (int) Math.max(1, 20 - (level.getGameTime() - lastLeakTick));
+    }
+
     // region Energy
 
     // TODO: Machine efficiency features.
@@ -108,34 +175,52 @@ public abstract class PoweredMachineEntity extends MachineBlockEntity {
 
     /**
      * Push energy out to neighboring blocks.
+     * The energy is split between the receiving sides, each side taking up to the transfer rate.
      */
     private void pushEnergy() {
         // Don't bother if our energy storage cannot output ever.
-        if (!getEnergyStorage().getIOMode().canOutput())
+        if (!getEnergyStorage().getIOMode().canOutput() || energyStorage.getEnergyStored() <= 0)
             return;
 
-        // Transmit power out all sides.
+        List<Direction> targets = new ArrayList<>();
         for (Direction side : Direction.values()) {
+            if (!energyHandlerCache.isPresent(side))
+                continue;
+
             // Get our energy handler, this will handle all sidedness tests for us.
             getCapability(ForgeCapabilities.ENERGY, side).resolve().ifPresent(selfHandler -> {
                 // If we can't extract out this side, continue
-                if (selfHandler.getEnergyStored() <= 0 || !selfHandler.canExtract())
+                if (!selfHandler.canExtract())
                     return;
 
-                // Get the other energy handler
+                // If the other handler can receive power, share ours with it
                 Optional<IEnergyStorage> otherHandler = getNeighboringEnergyHandler(side).resolve();
-                if (otherHandler.isPresent()) {
-                    // If the other handler can receive power transmit ours
-                    if (otherHandler.get().canReceive()) {
-                        // Try to send as much as our transfer rate will allow
-                        int received = otherHandler.get().receiveEnergy(Math.min(selfHandler.getEnergyStored(), getEnergyStorage().getMaxEnergyTransfer()), false);
-
-                        // Consume that energy from our buffer.
-                        getEnergyStorage().takeEnergy(received);
-                    }
+                if (otherHandler.isPresent() && otherHandler.get().canReceive()) {
+                    targets.add(side);
                 }
             });
         }
+
+        if (!targets.isEmpty()) {
+            int amount = (int) Math.min(energyStorage.getEnergyStored(), (long) getEnergyStorage().getMaxEnergyTransfer() * targets.size());
+            if (energyDistributor.distribute(targets, amount, this::pushEnergy) > 0) {
+                pushedEnergy = true;
+            }
+        }
+    }
+
+    /**
+     * Push up to amount energy to the neighbor on the given side.
+     */
+    private int pushEnergy(Direction side, int amount) {
+        Optional<IEnergyStorage> otherHandler = getNeighboringEnergyHandler(side).resolve();
+        if (otherHandler.isEmpty())
+            return 0;
+
+        // Consume the energy received from our buffer.
+        int received = otherHandler.get().receiveEnergy(amount, false);
+        getEnergyStorage().takeEnergy(received);
+        return received;
     }
 
     /**
@@ -153,28 +238,41 @@ public abstract class PoweredMachineEntity extends MachineBlockEntity {
 
     // endregion
 
-    // region Neighboring Capabilities
+    // region Offline catch-up
 
     @Override
-    protected void clearCaches() {
-        super.clearCaches();
-        energyHandlerCache.clear();
+    public void onLoad() {
+        super.onLoad();
+
+        // A chunk is only saved if it changed, so idle machines may overestimate the elapsed time. They have nothing to catch up on anyway.
+        if (!isClientSide() && savedGameTime >= 0 && MachinesConfig.COMMON.OFFLINE_CATCH_UP.get()) {
+            long elapsed = level.getGameTime() - savedGameTime;
+            if (elapsed > 0) {
+                catchUpTicks = (int) Math.min(elapsed, MachinesConfig.COMMON.OFFLINE_CATCH_UP_MAX_TICKS.get());
+            }
+        }
+        savedGameTime = -1;
     }
 
-    @Override
-    protected void populateCaches(Direction direction, @Nullable BlockEntity neighbor) {
-        super.populateCaches(direction, neighbor);
+    /**
+     * Apply the given number of ticks of work at once, after the chunk was unloaded for that long.
+     * Only the machine's own energy and inventory may be used, as neighbors did not run either.
+     * Overrides should do their work and then call super, which applies the energy leak.
+     */
+    protected void catchUp(int ticks) {
+        long leaked = (long) getEnergyLeakPerSecond() * (ticks / 20);
+        energyStorage.takeEnergy((int) Math.min(Integer.MAX_VALUE, leaked));
+    }
 
-        if (neighbor != null) {
-            energyHandlerCache.put(direction, addInvalidationListener(neighbor.getCapability(ForgeCapabilities.ENERGY, direction.getOpposite())));
-        } else {
-            energyHandlerCache.put(direction, LazyOptional.empty());
-        }
+    // endregion
+
+    // region Neighboring Capabilities
+
+    private boolean hasEnergyNeighbor() {
+        return energyHandlerCache.isAnyPresent();
     }
 
     protected LazyOptional<IEnergyStorage> getNeighboringEnergyHandler(Direction side) {
-        if (!energyHandlerCache.containsKey(side))
-            return LazyOptional.empty();
         return energyHandlerCache.get(side);
     }
 
@@ -228,6 +326,7 @@ public abstract class PoweredMachineEntity extends MachineBlockEntity {
     protected void onInventoryContentsChanged(int slot) {
         if (getInventoryLayout().getCapacitorSlot() == slot) {
             capacitorCacheDirty = true;
+            energyStorage.invalidateScaledValues();
         }
         super.onInventoryContentsChanged(slot);
     }
@@ -274,13 +373,21 @@ public abstract class PoweredMachineEntity extends MachineBlockEntity {
     @Override
     public void saveAdditional(CompoundTag pTag) {
         pTag.put("energy", energyStorage.serializeNBT());
+        if (level != null) {
+            pTag.putLong("SavedGameTime", level.getGameTime());
+        }
         super.saveAdditional(pTag);
     }
 
     @Override
     public void load(CompoundTag pTag) {
         energyStorage.deserializeNBT(pTag.getCompound("energy"));
+        savedGameTime = pTag.contains("SavedGameTime") ? pTag.getLong("SavedGameTime") : -1;
         super.load(pTag);
+
+        // The inventory was replaced, so the capacitor may have changed.
+        capacitorCacheDirty = true;
+        energyStorage.invalidateScaledValues();
     }
 
     // endregion
@@ -5,6 +5,7 @@ import com.enderio.api.capacitor.ICapacitorScalable;
 import com.enderio.api.io.energy.EnergyIOMode;
 import com.enderio.core.common.sync.FloatDataSlot;
 import com.enderio.core.common.sync.SyncMode;
+import com.enderio.core.common.sync.SyncRate;
 import com.enderio.machines.common.block.ProgressMachineBlock;
 import com.enderio.machines.common.blockentity.task.PoweredTask;
 import net.minecraft.core.BlockPos;
@@ -45,7 +46,7 @@ public abstract class PoweredTaskMachineEntity<T extends PoweredTask> extends Po
     public PoweredTaskMachineEntity(ICapacitorScalable capacity, ICapacitorScalable transferRate, ICapacitorScalable usageRate,
         BlockEntityType<?> type, BlockPos worldPosition, BlockState blockState) {
         super(EnergyIOMode.Input, capacity, transferRate, usageRate, type, worldPosition, blockState);
-        addDataSlot(new FloatDataSlot(this::getProgress, p -> clientProgress = p, SyncMode.GUI));
+        addDataSlot(new FloatDataSlot(this::getProgress, p -> clientProgress = p, SyncMode.GUI, 256).withSyncRate(SyncRate.FAST));
     }
 
     @Override
@@ -71,6 +72,7 @@ public abstract class PoweredTaskMachineEntity<T extends PoweredTask> extends Po
             if ((currentTask == null || currentTask.isComplete()) && hasNewTask && energyStorage.getEnergyStored() > 0) {
                 currentTask = getNewTask();
                 hasNewTask = false;
+                setChanged();
             }
 
             // If we have an unfinished task, continue it.
@@ -93,6 +95,17 @@ public abstract class PoweredTaskMachineEntity<T extends PoweredTask> extends Po
         super.serverTick();
     }
 
+    @Override
+    protected int getSleepTicks() {
+        // Keep ticking while a task runs, or while a new task can be started.
+        // A blocked task waits for energy or output space, which wake the machine when they arrive.
+        if (currentTask != null && !currentTask.isComplete())
+            return currentTask.isBlocked() ? super.getSleepTicks() : 0;
+        if (hasNewTask && energyStorage.getEnergyStored() > 0)
+            return 0;
+        return super.getSleepTicks();
+    }
+
     /**
      * Get task completion progress
      * @return Percentage completion, represented 0.0->1.0
@@ -127,6 +140,31 @@ public abstract class PoweredTaskMachineEntity<T extends PoweredTask> extends Po
         return currentTask != null;
     }
 
+    @Override
+    protected void catchUp(int ticks) {
+        if (canAct()) {
+            // No energy was received while unloaded, so only the stored energy can be used.
+            long budget = Math.min((long) ticks * energyStorage.getMaxEnergyUse(), energyStorage.getEnergyStored());
+            while (budget > 0) {
+                if (currentTask == null || currentTask.isComplete()) {
+                    currentTask = getNewTask();
+                    if (currentTask == null)
+                        break;
+                }
+
+                int consumed = currentTask.catchUp((int) budget);
+                if (consumed == 0)
+                    break;
+                budget -= consumed;
+            }
+
+            newTaskAvailable();
+            setChanged();
+        }
+
+        super.catchUp(ticks);
+    }
+
     /**
      * Get the new task.
      */
@@ -38,11 +38,14 @@ public abstract class VacuumMachineEntity<T extends Entity> extends MachineBlock
     private List<WeakReference<T>> entities = new ArrayList<>();
     private Class<T> clazz;
 
+    private final IntegerDataSlot rangeDataSlot;
+    private final BooleanDataSlot showRangeDataSlot;
+
     public VacuumMachineEntity(BlockEntityType<?> pType, BlockPos pWorldPosition, BlockState pBlockState, Class<T> clazz) {
         super(pType, pWorldPosition, pBlockState);
         this.clazz = clazz;
-        add2WayDataSlot(new IntegerDataSlot(this::getRange, this::setRange, SyncMode.GUI));
-        add2WayDataSlot(new BooleanDataSlot(this::isShowingRange, this::shouldShowRange, SyncMode.GUI));
+        rangeDataSlot = add2WayDataSlot(new IntegerDataSlot(this::getRange, this::setRange, SyncMode.GUI, range -> range >= 0 && range <= MAX_RANGE));
+        showRangeDataSlot = add2WayDataSlot(new BooleanDataSlot(this::isShowingRange, this::shouldShowRange, SyncMode.GUI));
     }
 
     @Override
@@ -58,6 +61,14 @@ public abstract class VacuumMachineEntity<T extends Entity> extends MachineBlock
         super.serverTick();
     }
 
+    @Override
+    protected int getSleepTicks() {
+        // Entities and the range display need every tick.
+        if (canAct() || isShowingRange())
+            return 0;
+        return super.getSleepTicks();
+    }
+
     @Override
     public void clientTick() {
         if (this.getRedstoneControl().isActive(level.hasNeighborSignal(worldPosition))) {
@@ -135,6 +146,14 @@ public abstract class VacuumMachineEntity<T extends Entity> extends MachineBlock
         }
     }
 
+    public IntegerDataSlot getRangeDataSlot() {
+        return rangeDataSlot;
+    }
+
+    public BooleanDataSlot getShowRangeDataSlot() {
+        return showRangeDataSlot;
+    }
+
     @Override
     public void onLoad() {
         if (this.entities.isEmpty()) {
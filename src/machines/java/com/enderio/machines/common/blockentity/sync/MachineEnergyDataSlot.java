@@ -4,7 +4,7 @@ import com.enderio.core.common.sync.EnderDataSlot;
 import com.enderio.core.common.sync.SyncMode;
 import com.enderio.machines.common.io.energy.IMachineEnergyStorage;
 import com.enderio.machines.common.io.energy.ImmutableMachineEnergyStorage;
-import net.minecraft.nbt.CompoundTag;
+import net.minecraft.network.FriendlyByteBuf;
 
 import java.util.function.Consumer;
 import java.util.function.Supplier;
@@ -14,27 +14,48 @@ import java.util.function.Supplier;
  * @apiNote Sends a {@link ImmutableMachineEnergyStorage} to the receiver.
  */
 public class MachineEnergyDataSlot extends EnderDataSlot<IMachineEnergyStorage> {
+    private int previousEnergy = -1;
+    private int previousMaxStored = -1;
+    private int previousMaxTransfer = -1;
+    private int previousMaxUse = -1;
+
     public MachineEnergyDataSlot(Supplier<IMachineEnergyStorage> getter, Consumer<IMachineEnergyStorage> setter, SyncMode mode) {
         super(getter, setter, mode);
     }
 
     @Override
-    public CompoundTag toFullNBT() {
+    public boolean hasChanged() {
+        IMachineEnergyStorage storage = getter().get();
+        return storage.getEnergyStored() != previousEnergy
+            || storage.getMaxEnergyStored() != previousMaxStored
+            || storage.getMaxEnergyTransfer() != previousMaxTransfer
+            || storage.getMaxEnergyUse() != previousMaxUse;
+    }
+
+    @Override
+    public void toBuffer(FriendlyByteBuf buf) {
         IMachineEnergyStorage storage = getter().get();
-        CompoundTag tag = new CompoundTag();
-        tag.putInt("Energy", storage.getEnergyStored());
-        tag.putInt("MaxStored", storage.getMaxEnergyStored());
-        tag.putInt("MaxTransfer", storage.getMaxEnergyTransfer());
-        tag.putInt("MaxUse", storage.getMaxEnergyUse());
-        return tag;
+        buf.writeVarInt(storage.getEnergyStored());
+        buf.writeVarInt(storage.getMaxEnergyStored());
+        buf.writeVarInt(storage.getMaxEnergyTransfer());
+        buf.writeVarInt(storage.getMaxEnergyUse());
     }
 
     @Override
-    protected IMachineEnergyStorage fromNBT(CompoundTag nbt) {
-        int energy = nbt.getInt("Energy");
-        int maxStored = nbt.getInt("MaxStored");
-        int maxTransfer = nbt.getInt("MaxTransfer");
-        int maxUse = nbt.getInt("MaxUse");
+    protected IMachineEnergyStorage fromBuffer(FriendlyByteBuf buf) {
+        int energy = buf.readVarInt();
+        int maxStored = buf.readVarInt();
+        int maxTransfer = buf.readVarInt();
+        int maxUse = buf.readVarInt();
         return new ImmutableMachineEnergyStorage(energy, maxStored, maxTransfer, maxUse);
     }
+
+    @Override
+    protected void updatePreviousValue() {
+        IMachineEnergyStorage storage = getter().get();
+        previousEnergy = storage.getEnergyStored();
+        previousMaxStored = storage.getMaxEnergyStored();
+        previousMaxTransfer = storage.getMaxEnergyTransfer();
+        previousMaxUse = storage.getMaxEnergyUse();
+    }
 }
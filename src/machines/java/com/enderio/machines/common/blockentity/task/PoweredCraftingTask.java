@@ -8,8 +8,10 @@ import net.minecraft.nbt.CompoundTag;
 import net.minecraft.nbt.ListTag;
 import net.minecraft.nbt.Tag;
 import net.minecraft.resources.ResourceLocation;
+import net.minecraft.util.RandomSource;
 import net.minecraft.world.Container;
 import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.level.levelgen.SingleThreadedRandomSource;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.ArrayList;
@@ -79,6 +81,23 @@ public abstract class PoweredCraftingTask<R extends MachineRecipe<C>, C extends
      */
     private boolean complete;
 
+    /**
+     * Whether the last tick consumed no energy and placed no outputs.
+     */
+    private boolean blocked;
+
+    /**
+     * Whether energy is consumed for several ticks at once.
+     */
+    private boolean catchingUp;
+
+    /**
+     * The random source for chanced outputs.
+     * Seeded by the machine and saved with the task, so the same task always rolls the same outputs.
+     */
+    private final RandomSource random = new SingleThreadedRandomSource(0);
+    private long seed;
+
     public PoweredCraftingTask(PoweredCraftingMachine<R, C> blockEntity, C container, int outputStartIndex, int outputCount, @Nullable R recipe) {
         super(blockEntity.getEnergyStorage());
         this.outputStartIndex = outputStartIndex;
@@ -101,16 +120,35 @@ public abstract class PoweredCraftingTask<R extends MachineRecipe<C>, C extends
         return recipe;
     }
 
+    /**
+     * Set the seed of the random source used to craft.
+     */
+    public void setSeed(long seed) {
+        this.seed = seed;
+        random.setSeed(seed);
+    }
+
     /**
      * Take inputs from the machine.
      */
     protected abstract void takeInputs(R recipe);
 
+    /**
+     * Whether more units of the recipe may be crafted into this task.
+     * Extra units are crafted before their inputs are taken, so override to refuse recipes whose outputs depend on the inputs taken.
+     */
+    protected boolean canBatch(R recipe) {
+        return true;
+    }
+
     /**
      * Consume energy from the buffer.
      * Only really exposed so the SAG mill can take durability from grinding balls.
      */
     protected int consumeEnergy(int maxConsume) {
+        // When catching up, the caller's budget already covers the usage rate of all ticks.
+        if (catchingUp)
+            return energyStorage.takeEnergy(maxConsume);
         return energyStorage.consumeEnergy(maxConsume, false);
     }
 
@@ -154,20 +192,41 @@ public abstract class PoweredCraftingTask<R extends MachineRecipe<C>, C extends
 
     @Override
     public void tick() {
+        blocked = progress(Integer.MAX_VALUE) == 0 && !complete;
+    }
+
+    @Override
+    public boolean isBlocked() {
+        return blocked;
+    }
+
+    @Override
+    public int catchUp(int maxEnergy) {
+        catchingUp = true;
+        int consumed = progress(maxEnergy);
+        catchingUp = false;
+        return consumed;
+    }
+
+    /**
+     * Progress the craft, consuming up to the given energy.
+     * @return the energy consumed
+     */
+    private int progress(int maxEnergy) {
         // If the recipe is done, don't let it tick.
         if (complete)
-            return;
+            return 0;
 
         // If the recipe failed to load somehow, cancel
         if (recipe == null) {
             complete = true;
-            return;
+            return 0;
         }
 
         // Get the outputs list.
         if (!determinedOutputs) {
             determinedOutputs = true;
-            outputs = recipe.craft(container);
+            outputs = recipe.craft(container, random);
 
             // TODO: Compact any items that are the same into singular stacks?
         }
@@ -177,7 +236,7 @@ public abstract class PoweredCraftingTask<R extends MachineRecipe<C>, C extends
             complete = true;
             // This means if a sagmill recipe outputs 2 it cancels the recipe, and the determined outputs are cleared. Its a weird behaviour but not necessarily a bug.
             // We might want to review how this works in future, as right now we wait for an inventory change rather than the machine tick repeatedly.
-            return;
+            return 0;
         }
 
         // If we haven't done so already, consume inputs for the recipe.
@@ -189,11 +248,15 @@ public abstract class PoweredCraftingTask<R extends MachineRecipe<C>, C extends
             // Store the recipe energy cost.
             // This is run afterwards as it allows container context changes after takeInputs()
             energyCost = recipe.getEnergyCost(container);
+
+            collectBatch(recipe);
         }
 
         // Try to consume as much energy as possible to finish the craft.
+        int consumed = 0;
         if (energyConsumed <= energyCost) {
-            energyConsumed += consumeEnergy(energyCost - energyConsumed);
+            consumed = consumeEnergy(Math.min(energyCost - energyConsumed, maxEnergy));
+            energyConsumed += consumed;
         }
 
         // If the recipe has been crafted, attempt to put it into storage
@@ -204,12 +267,73 @@ public abstract class PoweredCraftingTask<R extends MachineRecipe<C>, C extends
                 complete = true;
             }
         }
+        return consumed;
+    }
+
+    /**
+     * Craft more units of the recipe in this task, up to the machine's batch size.
+     * Each unit is checked, takes its inputs and adds its energy cost like the first one, but outputs are placed once for the whole batch.
+     * Stops once the stored energy could not pay for another unit, so batching never slows down crafting.
+     */
+    private void collectBatch(R recipe) {
+        if (!canBatch(recipe))
+            return;
+
+        int maxUnits = blockEntity.getMaxBatchSize();
+        for (int units = 1; units < maxUnits; units++) {
+            if (energyStorage.getEnergyStored() < energyCost + energyCost / units)
+                return;
+
+            if (!recipe.matches(container, blockEntity.getLevel()))
+                return;
+
+            List<OutputStack> batchOutputs = mergeOutputs(outputs, recipe.craft(container, random));
+            if (!placeOutputs(batchOutputs, true))
+                return;
+
+            takeInputs(recipe);
+            energyCost += recipe.getEnergyCost(container);
+            outputs = batchOutputs;
+        }
+    }
+
+    /**
+     * Merge two output lists, combining item stacks of the same item.
+     */
+    private static List<OutputStack> mergeOutputs(List<OutputStack> outputs, List<OutputStack> added) {
+        List<OutputStack> merged = new ArrayList<>(outputs.size() + added.size());
+        for (OutputStack output : outputs) {
+            merged.add(output.isItem() ? OutputStack.of(output.getItem().copy()) : output);
+        }
+
+        for (OutputStack output : added) {
+            if (output.isItem()) {
+                ItemStack item = output.getItem();
+                boolean combined = false;
+                for (OutputStack existing : merged) {
+                    if (existing.isItem() && ItemStack.isSameItemSameTags(existing.getItem(), item)) {
+                        existing.getItem().grow(item.getCount());
+                        combined = true;
+                        break;
+                    }
+                }
+
+                if (combined)
+                    continue;
+            }
+            merged.add(output);
+        }
+        return merged;
     }
 
     @Override
     public float getProgress() {
         if (recipe == null)
             return 0.0f;
+
+        // Once inputs are taken the cost covers the whole batch.
+        if (collectedInputs && energyCost > 0)
+            return energyConsumed / (float) energyCost;
         return energyConsumed / (float) recipe.getEnergyCost(container);
     }
 
@@ -225,7 +349,8 @@ public abstract class PoweredCraftingTask<R extends MachineRecipe<C>, C extends
         CompoundTag tag = new CompoundTag();
         tag.putString("RecipeId", recipe.getId().toString());
         tag.putInt("EnergyConsumed", energyConsumed);
-        tag.putInt("EnergyCost", energyConsumed);
+        tag.putInt("EnergyCost", energyCost);
+        tag.putLong("Seed", seed);
         tag.putBoolean("CollectedInputs", collectedInputs);
         tag.putBoolean("Complete", complete);
 
@@ -246,6 +371,7 @@ public abstract class PoweredCraftingTask<R extends MachineRecipe<C>, C extends
         recipe = loadRecipe(new ResourceLocation(nbt.getString("RecipeId")));
         energyConsumed = nbt.getInt("EnergyConsumed");
         energyCost = nbt.getInt("EnergyCost");
+        setSeed(nbt.getLong("Seed"));
         collectedInputs = nbt.getBoolean("CollectedInputs");
         complete = nbt.getBoolean("Complete");
 
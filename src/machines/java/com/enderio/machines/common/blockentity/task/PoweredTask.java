@@ -26,6 +26,15 @@ public abstract class PoweredTask implements INBTSerializable<CompoundTag> {
      */
     public abstract void tick();
 
+    /**
+     * Progress the task by several ticks at once, after the machine was unloaded.
+     * @param maxEnergy the most energy to consume, which accounts for the usage rate of all ticks.
+     * @return the energy consumed, or 0 if the task can't catch up.
+     */
+    public int catchUp(int maxEnergy) {
+        return 0;
+    }
+
     /**
      * Get the progress of the task.
      * 0 = not begun
@@ -38,4 +47,12 @@ public abstract class PoweredTask implements INBTSerializable<CompoundTag> {
      * @return Whether the task is complete and can be replaced.
      */
     public abstract boolean isComplete();
+
+    /**
+     * Whether the last tick made no progress, as the task waits for energy or for space for its outputs.
+     * Both arriving wake the machine, so it may sleep while the task is blocked.
+     */
+    public boolean isBlocked() {
+        return false;
+    }
 }
@@ -3,6 +3,7 @@ package com.enderio.machines.common.compat;
 import com.enderio.core.common.recipes.CountedIngredient;
 import com.enderio.core.common.recipes.OutputStack;
 import com.enderio.machines.common.recipe.AlloySmeltingRecipe;
+import net.minecraft.util.RandomSource;
 import net.minecraft.world.item.ItemStack;
 import net.minecraft.world.item.Items;
 import net.minecraft.world.item.crafting.RecipeSerializer;
@@ -47,7 +48,13 @@ public class VanillaAlloySmeltingRecipe extends AlloySmeltingRecipe {
     }
 
     @Override
-    public List<OutputStack> craft(Container container) {
+    public boolean matchesWith(Container container, int slot, ItemStack stack, Level level) {
+        // Smelting recipes only look at the first slot.
+        return slot == 0 ? vanillaRecipe.getIngredients().get(0).test(stack) : matches(container, level);
+    }
+
+    @Override
+    public List<OutputStack> craft(Container container, RandomSource random) {
         ItemStack result = vanillaRecipe.assemble(container);
         result.setCount(result.getCount() * container.getInputsTaken());
         return List.of(OutputStack.of(result));
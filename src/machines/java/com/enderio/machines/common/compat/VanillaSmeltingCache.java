@@ -0,0 +1,109 @@
+package com.enderio.machines.common.compat;
+
+import com.enderio.EnderIO;
+import com.enderio.machines.common.recipe.AlloySmeltingRecipe;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.crafting.Ingredient;
+import net.minecraft.world.item.crafting.RecipeManager;
+import net.minecraft.world.item.crafting.RecipeType;
+import net.minecraft.world.item.crafting.SmeltingRecipe;
+import net.minecraft.world.level.Level;
+import net.minecraftforge.client.event.RecipesUpdatedEvent;
+import net.minecraftforge.event.TagsUpdatedEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.WeakHashMap;
+
+/**
+ * Vanilla smelting recipes wrapped for the alloy smelter, looked up by input item.
+ * Wrappers are created once per recipe and shared by all alloy smelters.
+ * The cache is built on first use and dropped with its recipe manager, or when tags or client recipes are updated.
+ */
+@Mod.EventBusSubscriber(modid = EnderIO.MODID)
+public class VanillaSmeltingCache {
+    private static final Map<RecipeManager, VanillaSmeltingCache> CACHES = Collections.synchronizedMap(new WeakHashMap<>());
+
+    /**
+     * The first recipe listing each item, with its position in the recipe manager's order.
+     */
+    private final Map<Item, Entry> byItem = new HashMap<>();
+
+    /**
+     * Recipes with custom ingredients, in recipe manager order.
+     */
+    private final List<Entry> fallback = new ArrayList<>();
+
+    private final Map<ResourceLocation, VanillaAlloySmeltingRecipe> byId = new HashMap<>();
+
+    private VanillaSmeltingCache(RecipeManager recipeManager) {
+        List<SmeltingRecipe> recipes = recipeManager.getAllRecipesFor(RecipeType.SMELTING);
+        for (int i = 0; i < recipes.size(); i++) {
+            SmeltingRecipe recipe = recipes.get(i);
+            Entry entry = new Entry(i, new VanillaAlloySmeltingRecipe(recipe));
+            byId.put(recipe.getId(), entry.recipe());
+
+            Ingredient ingredient = recipe.getIngredients().get(0);
+            if (ingredient.isSimple()) {
+                for (ItemStack stack : ingredient.getItems()) {
+                    byItem.putIfAbsent(stack.getItem(), entry);
+                }
+            } else {
+                fallback.add(entry);
+            }
+        }
+    }
+
+    public static VanillaSmeltingCache get(Level level) {
+        return CACHES.computeIfAbsent(level.getRecipeManager(), VanillaSmeltingCache::new);
+    }
+
+    /**
+     * Find the smelting recipe for the first slot of the container, like {@link RecipeManager#getRecipeFor}.
+     */
+    public Optional<VanillaAlloySmeltingRecipe> getRecipeFor(AlloySmeltingRecipe.Container container, Level level) {
+        ItemStack input = container.getItem(0);
+        if (input.isEmpty())
+            return Optional.empty();
+
+        Entry entry = byItem.get(input.getItem());
+
+        // A custom ingredient earlier in the list takes priority.
+        for (Entry custom : fallback) {
+            if (entry != null && custom.order() > entry.order())
+                break;
+            if (custom.recipe().matches(container, level))
+                return Optional.of(custom.recipe());
+        }
+        return entry != null ? Optional.of(entry.recipe()) : Optional.empty();
+    }
+
+    /**
+     * Get the wrapper of the smelting recipe with the given id.
+     */
+    @Nullable
+    public VanillaAlloySmeltingRecipe byId(ResourceLocation id) {
+        return byId.get(id);
+    }
+
+    private record Entry(int order, VanillaAlloySmeltingRecipe recipe) {}
+
+    @SubscribeEvent
+    public static void onRecipesUpdated(RecipesUpdatedEvent event) {
+        CACHES.remove(event.getRecipeManager());
+    }
+
+    @SubscribeEvent
+    public static void onTagsUpdated(TagsUpdatedEvent event) {
+        CACHES.clear();
+    }
+}
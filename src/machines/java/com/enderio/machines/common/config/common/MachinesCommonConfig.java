@@ -7,11 +7,31 @@ public class MachinesCommonConfig {
     public final ForgeConfigSpec.ConfigValue<Float> ENCHANTER_LEVEL_COST_FACTOR;
     public final ForgeConfigSpec.ConfigValue<Integer> ENCHANTER_BASE_LEVEL_COST;
 
+    public final ForgeConfigSpec.ConfigValue<Double> TICK_BUDGET;
+    public final ForgeConfigSpec.ConfigValue<Boolean> OFFLINE_CATCH_UP;
+    public final ForgeConfigSpec.ConfigValue<Integer> OFFLINE_CATCH_UP_MAX_TICKS;
+
+    public final ForgeConfigSpec.ConfigValue<Integer> ITEM_TRANSFER_QUOTA;
+
     public MachinesCommonConfig(ForgeConfigSpec.Builder builder) {
         builder.push("enchanter");
         ENCHANTER_LAPIS_COST_FACTOR = builder.comment("The lapis cost is enchant level multiplied by this value.").define("lapisCostFactor", 3.0f);
         ENCHANTER_LEVEL_COST_FACTOR = builder.comment("The final XP cost for an enchantment is multiplied by this value. To halve costs set to 0.5, to double them set it to 2.").define("levelCostFactor", 0.75f);
         ENCHANTER_BASE_LEVEL_COST = builder.comment("Base level cost added to all recipes in the enchanter.").define("baseLevelCost", 2);
         builder.pop();
+
+        builder.push("ticking");
+        TICK_BUDGET = builder.comment("Milliseconds per level and tick that machines may spend ticking. Machines over budget tick first on the next tick. Halved while the server is behind. Set to 0 to disable.")
+            .defineInRange("tickBudget", 10.0, 0.0, 50.0);
+        OFFLINE_CATCH_UP = builder.comment("Whether machines catch up on the work they could have done while their chunk was unloaded, using only their own energy and inventory.")
+            .define("offlineCatchUp", false);
+        OFFLINE_CATCH_UP_MAX_TICKS = builder.comment("The most ticks of unloaded time a machine catches up on.")
+            .defineInRange("offlineCatchUpMaxTicks", 72000, 0, Integer.MAX_VALUE);
+        builder.pop();
+
+        builder.push("io");
+        ITEM_TRANSFER_QUOTA = builder.comment("The most items a machine pushes or pulls through one side at a time. Transfers happen every 5 ticks.")
+            .defineInRange("itemTransferQuota", 64, 1, 1024);
+        builder.pop();
     }
 }
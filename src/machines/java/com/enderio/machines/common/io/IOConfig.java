@@ -22,6 +22,8 @@ public class IOConfig implements IIOConfig {
 
     private final EnumMap<Direction, IOMode> config = new EnumMap<>(Direction.class);
 
+    private final EnumMap<Direction, Integer> fluidTransferLimits = new EnumMap<>(Direction.class);
+
     private final EnumMap<Direction, LazyOptional<SideAccess>> sideAccessCache = new EnumMap<>(Direction.class);
 
     public IOConfig() {
@@ -48,6 +50,22 @@ public class IOConfig implements IIOConfig {
         return true;
     }
 
+    @Override
+    public int getFluidTransferLimit(Direction side) {
+        return fluidTransferLimits.getOrDefault(translateSide(side), Integer.MAX_VALUE);
+    }
+
+    @Override
+    public void setFluidTransferLimit(Direction side, int limit) {
+        Direction relSide = translateSide(side);
+        if (limit == Integer.MAX_VALUE) {
+            fluidTransferLimits.remove(relSide);
+        } else {
+            fluidTransferLimits.put(relSide, Math.max(limit, 0));
+        }
+        onLimitChanged(side);
+    }
+
     @Override
     public boolean renderOverlay() {
         return true;
@@ -109,6 +127,11 @@ public class IOConfig implements IIOConfig {
 
     }
 
+    // Override in a BE
+    protected void onLimitChanged(Direction side) {
+
+    }
+
     // Override if the machine can be rotated.
     protected Direction getBlockFacing() {
         return Direction.SOUTH;
@@ -122,6 +145,10 @@ public class IOConfig implements IIOConfig {
             CompoundTag entryNbt = new CompoundTag();
             entryNbt.putInt("direction", entry.getKey().ordinal());
             entryNbt.putInt("state", entry.getValue().ordinal());
+            Integer fluidLimit = fluidTransferLimits.get(entry.getKey());
+            if (fluidLimit != null) {
+                entryNbt.putInt("fluid_limit", fluidLimit);
+            }
             listNbt.add(entryNbt);
         }
         nbt.put("data", listNbt);
@@ -131,9 +158,14 @@ public class IOConfig implements IIOConfig {
     @Override
     public void deserializeNBT(CompoundTag nbt) {
         ListTag listNbt = nbt.getList("data", Tag.TAG_COMPOUND);
+        fluidTransferLimits.clear();
         for (Tag tag : listNbt) {
             CompoundTag entryNbt = (CompoundTag) tag;
-            config.put(Direction.values()[entryNbt.getInt("direction")], IOMode.values()[entryNbt.getInt("state")]);
+            Direction direction = Direction.values()[entryNbt.getInt("direction")];
+            config.put(direction, IOMode.values()[entryNbt.getInt("state")]);
+            if (entryNbt.contains("fluid_limit")) {
+                fluidTransferLimits.put(direction, entryNbt.getInt("fluid_limit"));
+            }
         }
     }
 
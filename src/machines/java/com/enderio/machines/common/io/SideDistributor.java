@@ -0,0 +1,72 @@
+package com.enderio.machines.common.io;
+
+import net.minecraft.core.Direction;
+
+import java.util.List;
+
+/**
+ * Splits an amount of a resource between the sides of a machine, so no side is always served first.
+ * Each side is offered an equal share. Shares refused by full sides are offered again to the sides that took everything.
+ * A cursor that advances every call picks the side served first, so what doesn't divide evenly goes to each side in turn.
+ * Callers should offer no more than they hold, or the first side may take everything.
+ */
+public class SideDistributor {
+    private int cursor;
+
+    /**
+     * A side accepting a resource.
+     */
+    @FunctionalInterface
+    public interface Sink {
+        /**
+         * Offer an amount to the side.
+         * @return the amount accepted
+         */
+        int accept(Direction side, int amount);
+    }
+
+    /**
+     * Split the amount between the sides.
+     * @return the amount accepted by all sides
+     */
+    public int distribute(List<Direction> sides, int amount, Sink sink) {
+        if (sides.isEmpty() || amount <= 0)
+            return 0;
+
+        Direction[] active = order(sides);
+        int activeCount = active.length;
+        int remaining = amount;
+
+        // Every round either serves all sides a full share or drops the full ones, so this ends after a few rounds.
+        while (remaining > 0 && activeCount > 0) {
+            int share = Math.max(1, remaining / activeCount);
+            int kept = 0;
+            for (int i = 0; i < activeCount; i++) {
+                Direction side = active[i];
+                int offered = Math.min(share, remaining);
+                int accepted = offered > 0 ? sink.accept(side, offered) : 0;
+                remaining -= accepted;
+
+                // Sides that took less than offered are full for now.
+                if (offered == 0 || accepted == offered) {
+                    active[kept++] = side;
+                }
+            }
+            activeCount = kept;
+        }
+        return amount - remaining;
+    }
+
+    /**
+     * Rotate the sides to start at the cursor.
+     */
+    private Direction[] order(List<Direction> sides) {
+        int count = sides.size();
+        int start = Math.floorMod(cursor++, count);
+        Direction[] ordered = new Direction[count];
+        for (int i = 0; i < count; i++) {
+            ordered[i] = sides.get((start + i) % count);
+        }
+        return ordered;
+    }
+}
@@ -1,6 +1,7 @@
 package com.enderio.machines.common.io.energy;
 
 import com.enderio.api.capability.IEnderCapabilityProvider;
+import com.enderio.api.capacitor.ICapacitorScalable;
 import com.enderio.api.io.IIOConfig;
 import com.enderio.api.io.energy.EnergyIOMode;
 import net.minecraft.core.Direction;
@@ -18,6 +19,7 @@ import java.util.function.Supplier;
 /**
  * Machine energy storage medium.
  * Uses capacitor keys to determine maximum capacity and transfer rate.
+ * The scaled values are cached, call {@link #invalidateScaledValues()} when the capacitor changes.
  * Also provides sided access through capabilities.
  */
 public class MachineEnergyStorage implements IMachineEnergyStorage, IEnderCapabilityProvider<IEnergyStorage>, INBTSerializable<CompoundTag> {
@@ -28,6 +30,11 @@ public class MachineEnergyStorage implements IMachineEnergyStorage, IEnderCapabi
 
     private final Supplier<Integer> capacity, transferRate, usageRate;
 
+    // Cached values of the suppliers above, for the scalable cache generation in scaledGeneration.
+    private int maxEnergyStored, maxEnergyTransfer, maxEnergyUse;
+    private int scaledGeneration;
+    private boolean scaledValuesDirty = true;
+
     private final EnumMap<Direction, LazyOptional<Sided>> sideCache = new EnumMap<>(Direction.class);
     private LazyOptional<MachineEnergyStorage> selfCache = LazyOptional.empty();
 
@@ -70,7 +77,9 @@ public class MachineEnergyStorage implements IMachineEnergyStorage, IEnderCapabi
     public int addEnergy(int energy) {
         int energyBefore = energyStored;
         energyStored = Math.min(energyStored + energy, getMaxEnergyStored());
-        onContentsChanged();
+        if (energyStored != energyBefore) {
+            onContentsChanged();
+        }
         return energyStored - energyBefore;
     }
 
@@ -78,7 +87,9 @@ public class MachineEnergyStorage implements IMachineEnergyStorage, IEnderCapabi
     public int takeEnergy(int energy) {
         int energyBefore = energyStored;
         energyStored = Math.max(energyStored - energy, 0);
-        onContentsChanged();
+        if (energyStored != energyBefore) {
+            onContentsChanged();
+        }
         return energyBefore - energyStored;
     }
 
@@ -94,17 +105,38 @@ public class MachineEnergyStorage implements IMachineEnergyStorage, IEnderCapabi
 
     @Override
     public int getMaxEnergyStored() {
-        return capacity.get();
+        updateScaledValues();
+        return maxEnergyStored;
     }
 
     @Override
     public int getMaxEnergyTransfer() {
-        return transferRate.get();
+        updateScaledValues();
+        return maxEnergyTransfer;
     }
 
     @Override
     public int getMaxEnergyUse() {
-        return usageRate.get();
+        updateScaledValues();
+        return maxEnergyUse;
+    }
+
+    /**
+     * Scale the capacity, transfer and usage rates again on next use.
+     */
+    public void invalidateScaledValues() {
+        scaledValuesDirty = true;
+    }
+
+    private void updateScaledValues() {
+        int generation = ICapacitorScalable.getCacheGeneration();
+        if (scaledValuesDirty || scaledGeneration != generation) {
+            scaledValuesDirty = false;
+            scaledGeneration = generation;
+            maxEnergyStored = capacity.get();
+            maxEnergyTransfer = transferRate.get();
+            maxEnergyUse = usageRate.get();
+        }
     }
 
     @Override
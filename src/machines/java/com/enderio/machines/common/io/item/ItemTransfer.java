@@ -0,0 +1,97 @@
+package com.enderio.machines.common.io.item;
+
+import net.minecraft.world.item.ItemStack;
+import net.minecraftforge.items.IItemHandler;
+import net.minecraftforge.items.ItemHandlerHelper;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Moves items from one item handler to another, up to a quota per transfer.
+ * The slots last extracted from and inserted into are remembered, and the next transfer starts there.
+ * Empty source slots and full or mismatched destination slots are skipped without simulating.
+ * Machine inventories are accessed directly: their side config is checked once per transfer, and slots their layout forbids are skipped.
+ * Use one instance per pair of handlers and direction, as the hints are slot indices.
+ */
+public class ItemTransfer {
+    private int extractHint;
+    private int insertHint;
+
+    /**
+     * Move up to quota items.
+     * @return the number of items moved
+     */
+    public int transfer(IItemHandler from, IItemHandler to, int quota) {
+        MachineInventory fromInventory = null;
+        if (from instanceof MachineInventory.Wrapped wrapped) {
+            if (wrapped.side() != null && !wrapped.master().getConfig().getMode(wrapped.side()).canOutput())
+                return 0;
+            fromInventory = wrapped.master();
+            from = fromInventory;
+        }
+
+        MachineInventory toInventory = null;
+        if (to instanceof MachineInventory.Wrapped wrapped) {
+            if (wrapped.side() != null && !wrapped.master().getConfig().getMode(wrapped.side()).canInput())
+                return 0;
+            toInventory = wrapped.master();
+            to = toInventory;
+        }
+
+        int slots = from.getSlots();
+        int moved = 0;
+        for (int i = 0; i < slots && moved < quota; i++) {
+            int slot = (extractHint + i) % slots;
+            if (from.getStackInSlot(slot).isEmpty() || (fromInventory != null && !fromInventory.getLayout().canExtract(slot)))
+                continue;
+
+            ItemStack extracted = from.extractItem(slot, quota - moved, true);
+            if (extracted.isEmpty())
+                continue;
+
+            int inserted = insert(to, toInventory, extracted);
+            if (inserted > 0) {
+                from.extractItem(slot, inserted, false);
+                moved += inserted;
+                extractHint = slot;
+            }
+        }
+        return moved;
+    }
+
+    /**
+     * Insert the stack into the handler.
+     * @return the number of items inserted
+     */
+    private int insert(IItemHandler to, @Nullable MachineInventory toInventory, ItemStack stack) {
+        int slots = to.getSlots();
+        ItemStack remaining = stack;
+        for (int i = 0; i < slots && !remaining.isEmpty(); i++) {
+            int slot = (insertHint + i) % slots;
+            if (toInventory != null && !toInventory.getLayout().canInsert(slot))
+                continue;
+
+            ItemStack current = to.getStackInSlot(slot);
+            if (!current.isEmpty() && (isFull(to, toInventory, slot, current) || !ItemHandlerHelper.canItemStacksStack(current, remaining)))
+                continue;
+
+            ItemStack left = to.insertItem(slot, remaining, false);
+            if (left.getCount() < remaining.getCount()) {
+                insertHint = slot;
+            }
+            remaining = left;
+        }
+        return stack.getCount() - remaining.getCount();
+    }
+
+    /**
+     * Whether the slot can't take more of its item.
+     * Only machine inventories are known to cap slots at the item's max stack size, other handlers may hold far more.
+     */
+    private static boolean isFull(IItemHandler to, @Nullable MachineInventory toInventory, int slot, ItemStack current) {
+        int limit = to.getSlotLimit(slot);
+        if (toInventory != null) {
+            limit = Math.min(limit, current.getMaxStackSize());
+        }
+        return current.getCount() >= limit;
+    }
+}
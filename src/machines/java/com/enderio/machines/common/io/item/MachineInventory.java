@@ -95,7 +95,7 @@ public class MachineInventory extends ItemStackHandler implements IEnderCapabili
         }
     }
 
-    private record Wrapped(MachineInventory master, @Nullable Direction side) implements IItemHandler {
+    record Wrapped(MachineInventory master, @Nullable Direction side) implements IItemHandler {
 
         @Override
         public int getSlots() {
@@ -1,6 +1,8 @@
 package com.enderio.machines.common.menu;
 
+import com.enderio.core.common.sync.EnumDataSlot;
 import com.enderio.machines.common.blockentity.AlloySmelterBlockEntity;
+import com.enderio.machines.common.blockentity.AlloySmelterMode;
 import com.enderio.machines.common.init.MachineMenus;
 import net.minecraft.network.FriendlyByteBuf;
 import net.minecraft.world.entity.player.Inventory;
@@ -26,6 +28,21 @@ public class AlloySmelterMenu extends MachineMenu<AlloySmelterBlockEntity> {
         addInventorySlots(8,84);
     }
 
+    /**
+     * Set the alloy smelting mode from the GUI.
+     */
+    public void setMode(AlloySmelterMode mode) {
+        AlloySmelterBlockEntity blockEntity = getBlockEntity();
+        if (blockEntity == null)
+            return;
+
+        EnumDataSlot<AlloySmelterMode> dataSlot = blockEntity.getModeDataSlot();
+        if (dataSlot != null) {
+            blockEntity.setMode(mode);
+            submitEdit(dataSlot);
+        }
+    }
+
     public static AlloySmelterMenu factory(@Nullable MenuType<AlloySmelterMenu> pMenuType, int pContainerId, Inventory inventory, FriendlyByteBuf buf) {
         BlockEntity entity = inventory.player.level.getBlockEntity(buf.readBlockPos());
         if (entity instanceof AlloySmelterBlockEntity castBlockEntity)
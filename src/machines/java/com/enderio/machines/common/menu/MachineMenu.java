@@ -1,6 +1,8 @@
 package com.enderio.machines.common.menu;
 
+import com.enderio.base.common.blockentity.RedstoneControl;
 import com.enderio.core.common.menu.SyncedMenu;
+import com.enderio.core.common.sync.EnumDataSlot;
 import com.enderio.machines.common.blockentity.base.MachineBlockEntity;
 import net.minecraft.world.entity.player.Inventory;
 import net.minecraft.world.entity.player.Player;
@@ -16,6 +18,21 @@ public abstract class MachineMenu<T extends MachineBlockEntity> extends SyncedMe
         super(blockEntity, inventory, pMenuType, pContainerId);
     }
 
+    /**
+     * Set the machine's redstone control from the GUI.
+     */
+    public void setRedstoneControl(RedstoneControl control) {
+        T blockEntity = getBlockEntity();
+        if (blockEntity == null)
+            return;
+
+        EnumDataSlot<RedstoneControl> dataSlot = blockEntity.getRedstoneControlDataSlot();
+        if (dataSlot != null) {
+            blockEntity.setRedstoneControl(control);
+            submitEdit(dataSlot);
+        }
+    }
+
     @Override
     public boolean stillValid(Player pPlayer) {
         return getBlockEntity() != null
@@ -9,7 +9,7 @@ import net.minecraft.world.level.block.entity.BlockEntity;
 import org.apache.logging.log4j.LogManager;
 import org.jetbrains.annotations.Nullable;
 
-public class VacuumChestMenu extends MachineMenu<VacuumChestBlockEntity> {
+public class VacuumChestMenu extends VacuumMachineMenu<VacuumChestBlockEntity> {
 
     public VacuumChestMenu(VacuumChestBlockEntity blockEntity, Inventory inventory, int pContainerId) {
         super(blockEntity, inventory, MachineMenus.VACUUM_CHEST.get(), pContainerId);
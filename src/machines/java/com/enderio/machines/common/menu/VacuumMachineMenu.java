@@ -0,0 +1,37 @@
+package com.enderio.machines.common.menu;
+
+import com.enderio.machines.common.blockentity.base.VacuumMachineEntity;
+import net.minecraft.world.entity.player.Inventory;
+import net.minecraft.world.inventory.MenuType;
+import org.jetbrains.annotations.Nullable;
+
+public abstract class VacuumMachineMenu<T extends VacuumMachineEntity<?>> extends MachineMenu<T> {
+
+    protected VacuumMachineMenu(@Nullable T blockEntity, Inventory inventory, @Nullable MenuType<?> pMenuType, int pContainerId) {
+        super(blockEntity, inventory, pMenuType, pContainerId);
+    }
+
+    public void increaseRange() {
+        T blockEntity = getBlockEntity();
+        if (blockEntity != null) {
+            blockEntity.increaseRange();
+            submitEdit(blockEntity.getRangeDataSlot());
+        }
+    }
+
+    public void decreaseRange() {
+        T blockEntity = getBlockEntity();
+        if (blockEntity != null) {
+            blockEntity.decreaseRange();
+            submitEdit(blockEntity.getRangeDataSlot());
+        }
+    }
+
+    public void shouldShowRange(boolean show) {
+        T blockEntity = getBlockEntity();
+        if (blockEntity != null) {
+            blockEntity.shouldShowRange(show);
+            submitEdit(blockEntity.getShowRangeDataSlot());
+        }
+    }
+}
@@ -9,7 +9,7 @@ import net.minecraft.world.level.block.entity.BlockEntity;
 import org.apache.logging.log4j.LogManager;
 import org.jetbrains.annotations.Nullable;
 
-public class XPVacuumMenu extends MachineMenu<XPVacuumBlockEntity> {
+public class XPVacuumMenu extends VacuumMachineMenu<XPVacuumBlockEntity> {
 
     public XPVacuumMenu(XPVacuumBlockEntity blockEntity, Inventory inventory, int pContainerId) {
         super(blockEntity, inventory, MachineMenus.XP_VACUUM.get(), pContainerId);
@@ -6,9 +6,12 @@ import com.enderio.core.common.recipes.OutputStack;
 import com.enderio.machines.common.init.MachineRecipes;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonObject;
+import net.minecraft.core.NonNullList;
 import net.minecraft.network.FriendlyByteBuf;
 import net.minecraft.resources.ResourceLocation;
+import net.minecraft.util.RandomSource;
 import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.crafting.Ingredient;
 import net.minecraft.world.item.crafting.RecipeSerializer;
 import net.minecraft.world.item.crafting.RecipeType;
 import net.minecraft.world.level.Level;
@@ -28,6 +31,9 @@ public class AlloySmeltingRecipe implements MachineRecipe<AlloySmeltingRecipe.Co
     private final int energy;
     private final float experience;
 
+    @Nullable
+    private MultiIngredientMatcher matcher;
+
     public AlloySmeltingRecipe(ResourceLocation id, List<CountedIngredient> inputs, ItemStack output, int energy, float experience) {
         this.id = id;
         this.inputs = inputs;
@@ -56,40 +62,35 @@ public class AlloySmeltingRecipe implements MachineRecipe<AlloySmeltingRecipe.Co
     }
 
     @Override
-    public boolean matches(Container container, Level level) {
-        boolean[] matched = new boolean[3];
-
-        // Iterate over the slots
-        for (int i = 0; i < 3; i++) {
-            // Iterate over the inputs
-            for (int j = 0; j < 3; j++) {
-                // If this ingredient has been matched already, continue
-                if (matched[j])
-                    continue;
-
-                if (j < inputs.size()) {
-                    // If we expect an input, test we have a match for it.
-                    if (inputs.get(j).test(container.getItem(i))) {
-                        matched[j] = true;
-                    }
-                } else if (container.getItem(i) == ItemStack.EMPTY) {
-                    // If we don't expect an input, make sure we have a blank for it.
-                    matched[j] = true;
-                }
-            }
+    public NonNullList<Ingredient> getIngredients() {
+        NonNullList<Ingredient> ingredients = NonNullList.create();
+        for (CountedIngredient input : getInputs()) {
+            ingredients.add(input.ingredient());
         }
+        return ingredients;
+    }
 
-        // If we matched all our ingredients, we win!
-        for (int i = 0; i < 3; i++) {
-            if (!matched[i])
-                return false;
-        }
+    @Override
+    public boolean matches(Container container, Level level) {
+        return getMatcher().matches(container);
+    }
+
+    /**
+     * Whether the container would match with the stack in the given slot, without changing the container.
+     */
+    public boolean matchesWith(Container container, int slot, ItemStack stack, Level level) {
+        return getMatcher().matchesWith(container, slot, stack);
+    }
 
-        return true;
+    private MultiIngredientMatcher getMatcher() {
+        if (matcher == null) {
+            matcher = new MultiIngredientMatcher(getInputs(), 3);
+        }
+        return matcher;
     }
 
     @Override
-    public List<OutputStack> craft(Container container) {
+    public List<OutputStack> craft(Container container, RandomSource random) {
          return List.of(OutputStack.of(output.copy()));
     }
 
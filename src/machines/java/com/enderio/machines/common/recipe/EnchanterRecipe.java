@@ -6,6 +6,7 @@ import com.enderio.machines.common.config.MachinesConfig;
 import com.enderio.machines.common.init.MachineRecipes;
 import com.google.gson.JsonObject;
 import net.minecraft.ResourceLocationException;
+import net.minecraft.core.NonNullList;
 import net.minecraft.network.FriendlyByteBuf;
 import net.minecraft.resources.ResourceLocation;
 import net.minecraft.world.Container;
@@ -145,6 +146,11 @@ public class EnchanterRecipe implements EnderRecipe<Container> {
 
     // endregion
 
+    @Override
+    public NonNullList<Ingredient> getIngredients() {
+        return NonNullList.of(Ingredient.EMPTY, input);
+    }
+
     @Override
     public boolean matches(Container container, @Nullable Level level) {
         if (!container.getItem(0).is(Items.WRITABLE_BOOK)) {
@@ -2,6 +2,7 @@ package com.enderio.machines.common.recipe;
 
 import com.enderio.core.common.recipes.EnderRecipe;
 import com.enderio.core.common.recipes.OutputStack;
+import net.minecraft.util.RandomSource;
 import net.minecraft.world.Container;
 import net.minecraft.world.item.ItemStack;
 
@@ -16,9 +17,10 @@ public interface MachineRecipe<C extends Container> extends EnderRecipe<C> {
 
     /**
      * Craft outputs for this recipe.
+     * @param random The random source for chanced outputs, owned by the crafting task.
      * @return An array of item and fluid outputs.
      */
-    List<OutputStack> craft(C container);
+    List<OutputStack> craft(C container, RandomSource random);
 
     /**
      * Get the results of this machine, for display or verification purposes only.
@@ -27,7 +29,7 @@ public interface MachineRecipe<C extends Container> extends EnderRecipe<C> {
     List<OutputStack> getResultStacks();
 
     /**
-     * @deprecated Replaced by {@link #craft(Container)} to support multiple outputs and output types.
+     * @deprecated Replaced by {@link #craft(Container, RandomSource)} to support multiple outputs and output types.
      */
     @Deprecated
     @Override
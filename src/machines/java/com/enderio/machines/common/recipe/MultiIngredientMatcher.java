@@ -0,0 +1,128 @@
+package com.enderio.machines.common.recipe;
+
+import com.enderio.core.common.recipes.CountedIngredient;
+import it.unimi.dsi.fastutil.objects.Reference2IntMap;
+import it.unimi.dsi.fastutil.objects.Reference2IntOpenHashMap;
+import net.minecraft.world.Container;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.crafting.Ingredient;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+
+/**
+ * Matches shapeless inputs against up to 31 slots, using bitmasks.
+ * Each ingredient is one bit. Positions without an ingredient are matched by any empty slot.
+ * A slot's mask has the bits of all positions it satisfies, and the inputs match if the slot masks cover all positions.
+ * One slot may satisfy several positions, the same as when the inputs are taken.
+ */
+public class MultiIngredientMatcher {
+    private final List<CountedIngredient> inputs;
+    private final int slots;
+
+    /**
+     * Bits of the positions without an ingredient or with one accepting empty stacks.
+     * Built with {@link #itemMasks}.
+     */
+    private int emptyMask;
+
+    /**
+     * Bits of the ingredients that are tested directly, because they may match items they do not list.
+     */
+    private final int customMask;
+
+    private final int allMask;
+
+    /**
+     * Bits of the simple ingredients listing each item, ignoring counts.
+     * Built on first use, so tags are bound.
+     */
+    @Nullable
+    private Reference2IntMap<Item> itemMasks;
+
+    public MultiIngredientMatcher(List<CountedIngredient> inputs, int slots) {
+        if (inputs.size() > slots || slots > 31)
+            throw new IllegalArgumentException("Can't match " + inputs.size() + " inputs against " + slots + " slots");
+
+        this.inputs = inputs;
+        this.slots = slots;
+
+        allMask = (1 << slots) - 1;
+
+        int customMask = 0;
+        for (int i = 0; i < inputs.size(); i++) {
+            if (!inputs.get(i).ingredient().isSimple()) {
+                customMask |= 1 << i;
+            }
+        }
+        this.customMask = customMask;
+    }
+
+    /**
+     * Whether the first slots of the container satisfy every position.
+     */
+    public boolean matches(Container container) {
+        int matched = 0;
+        for (int i = 0; i < slots; i++) {
+            matched |= getSlotMask(container.getItem(i));
+        }
+        return matched == allMask;
+    }
+
+    /**
+     * Whether the container would match with the stack in the given slot, without changing the container.
+     */
+    public boolean matchesWith(Container container, int slot, ItemStack stack) {
+        int matched = 0;
+        for (int i = 0; i < slots; i++) {
+            matched |= getSlotMask(i == slot ? stack : container.getItem(i));
+        }
+        return matched == allMask;
+    }
+
+    /**
+     * Get the bits of the positions a stack satisfies.
+     */
+    public int getSlotMask(ItemStack stack) {
+        Reference2IntMap<Item> itemMasks = getItemMasks();
+        if (stack.isEmpty())
+            return emptyMask;
+
+        int mask = itemMasks.getInt(stack.getItem());
+        for (int i = 0; i < inputs.size(); i++) {
+            int bit = 1 << i;
+            CountedIngredient input = inputs.get(i);
+            if ((customMask & bit) != 0 && input.ingredient().test(stack)) {
+                mask |= bit;
+            }
+
+            if ((mask & bit) != 0 && stack.getCount() < input.count()) {
+                mask &= ~bit;
+            }
+        }
+        return mask;
+    }
+
+    private Reference2IntMap<Item> getItemMasks() {
+        if (itemMasks == null) {
+            Reference2IntMap<Item> masks = new Reference2IntOpenHashMap<>();
+            int emptyMask = allMask & ~((1 << inputs.size()) - 1);
+            for (int i = 0; i < inputs.size(); i++) {
+                if (inputs.get(i).test(ItemStack.EMPTY)) {
+                    emptyMask |= 1 << i;
+                }
+
+                Ingredient ingredient = inputs.get(i).ingredient();
+                if (ingredient.isSimple()) {
+                    for (ItemStack stack : ingredient.getItems()) {
+                        masks.put(stack.getItem(), masks.getInt(stack.getItem()) | 1 << i);
+                    }
+                }
+            }
+            this.emptyMask = emptyMask;
+            itemMasks = masks;
+        }
+        return itemMasks;
+    }
+}
@@ -0,0 +1,210 @@
+package com.enderio.machines.common.recipe;
+
+import com.enderio.EnderIO;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import net.minecraft.world.Container;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.crafting.Ingredient;
+import net.minecraft.world.item.crafting.Recipe;
+import net.minecraft.world.item.crafting.RecipeManager;
+import net.minecraft.world.item.crafting.RecipeType;
+import net.minecraft.world.level.Level;
+import net.minecraftforge.client.event.RecipesUpdatedEvent;
+import net.minecraftforge.event.TagsUpdatedEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Lookup of the recipes of one type by input item, replacing {@link RecipeManager#getRecipeFor}.
+ * Each recipe is indexed by the items of its most specific ingredient from {@link Recipe#getIngredients()}.
+ * Recipes without a usable ingredient (no ingredients, or only custom and NBT ingredients) are always tested.
+ * Candidates are tested in recipe manager order, so the result is the same as {@link RecipeManager#getRecipeFor}.
+ * Indices are built on first use. They are dropped with their recipe manager, which is replaced when data packs are reloaded.
+ */
+@Mod.EventBusSubscriber(modid = EnderIO.MODID)
+public class RecipeIndex<C extends Container, R extends Recipe<C>> {
+    private static final Map<RecipeManager, Map<RecipeType<?>, RecipeIndex<?, ?>>> INDICES = Collections.synchronizedMap(new WeakHashMap<>());
+
+    /**
+     * Collects the candidates of inputs with several items, reused so lookups don't allocate.
+     * Indices are shared by the client and the integrated server, so each thread has its own.
+     */
+    private static final ThreadLocal<IntArrayList> SCRATCH = ThreadLocal.withInitial(IntArrayList::new);
+
+    private final List<R> recipes;
+
+    /**
+     * Indices into {@link #recipes} of the recipes with an ingredient matching the item and of the {@link #fallback} recipes, in ascending order.
+     */
+    private final Map<Item, IntArrayList> byItem = new HashMap<>();
+
+    /**
+     * Indices into {@link #recipes} of the recipes that are not indexed by item.
+     */
+    private final IntArrayList fallback = new IntArrayList();
+
+    private RecipeIndex(List<R> recipes) {
+        this.recipes = recipes;
+        for (int i = 0; i < recipes.size(); i++) {
+            Ingredient key = getKeyIngredient(recipes.get(i));
+            if (key == null) {
+                fallback.add(i);
+                continue;
+            }
+
+            for (ItemStack stack : key.getItems()) {
+                IntArrayList candidates = byItem.computeIfAbsent(stack.getItem(), item -> new IntArrayList());
+                // Several stacks of an ingredient can share an item.
+                if (candidates.isEmpty() || candidates.getInt(candidates.size() - 1) != i) {
+                    candidates.add(i);
+                }
+            }
+        }
+
+        // Merge the fallback into every item's candidates, so one item's candidates are a single list.
+        for (Map.Entry<Item, IntArrayList> entry : byItem.entrySet()) {
+            entry.setValue(merge(entry.getValue(), fallback));
+        }
+    }
+
+    /**
+     * Get the index for the recipe type of the level's recipe manager.
+     */
+    @SuppressWarnings("unchecked")
+    public static <C extends Container, R extends Recipe<C>> RecipeIndex<C, R> get(Level level, RecipeType<R> recipeType) {
+        RecipeManager recipeManager = level.getRecipeManager();
+        return (RecipeIndex<C, R>) INDICES
+            .computeIfAbsent(recipeManager, m -> new ConcurrentHashMap<>())
+            .computeIfAbsent(recipeType, t -> new RecipeIndex<>(recipeManager.getAllRecipesFor(recipeType)));
+    }
+
+    /**
+     * Get the indexed recipes, in recipe manager order.
+     */
+    public List<R> getRecipes() {
+        return recipes;
+    }
+
+    /**
+     * Find the first recipe matching the container.
+     */
+    public Optional<R> getRecipeFor(C container, Level level) {
+        // Most inputs are a single item, whose candidates are tested as they are.
+        Item item = null;
+        boolean severalItems = false;
+        for (int slot = 0; slot < container.getContainerSize(); slot++) {
+            ItemStack stack = container.getItem(slot);
+            if (stack.isEmpty())
+                continue;
+
+            if (item == null) {
+                item = stack.getItem();
+            } else if (item != stack.getItem()) {
+                severalItems = true;
+                break;
+            }
+        }
+
+        if (!severalItems)
+            return findFirst(item == null ? fallback : getCandidates(item), container, level);
+
+        IntArrayList candidates = SCRATCH.get();
+        candidates.clear();
+        for (int slot = 0; slot < container.getContainerSize(); slot++) {
+            ItemStack stack = container.getItem(slot);
+            if (!stack.isEmpty()) {
+                candidates.addAll(getCandidates(stack.getItem()));
+            }
+        }
+        candidates.sort(null);
+        return findFirst(candidates, container, level);
+    }
+
+    private IntArrayList getCandidates(Item item) {
+        IntArrayList candidates = byItem.get(item);
+        return candidates != null ? candidates : fallback;
+    }
+
+    /**
+     * Test the candidates in order, skipping repeated indices.
+     */
+    private Optional<R> findFirst(IntArrayList candidates, C container, Level level) {
+        for (int i = 0; i < candidates.size(); i++) {
+            int index = candidates.getInt(i);
+            if (i > 0 && candidates.getInt(i - 1) == index)
+                continue;
+
+            R recipe = recipes.get(index);
+            if (recipe.matches(container, level))
+                return Optional.of(recipe);
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Merge two ascending lists of indices into one, without duplicates.
+     */
+    private static IntArrayList merge(IntArrayList a, IntArrayList b) {
+        IntArrayList merged = new IntArrayList(a.size() + b.size());
+        int i = 0;
+        int j = 0;
+        while (i < a.size() || j < b.size()) {
+            int next;
+            if (j >= b.size() || i < a.size() && a.getInt(i) < b.getInt(j)) {
+                next = a.getInt(i++);
+            } else if (i >= a.size() || b.getInt(j) < a.getInt(i)) {
+                next = b.getInt(j++);
+            } else {
+                next = a.getInt(i++);
+                j++;
+            }
+            merged.add(next);
+        }
+        merged.trim();
+        return merged;
+    }
+
+    /**
+     * Get the simple ingredient matching the fewest items, or null if the recipe can't be indexed.
+     * A recipe only matches if all of its ingredients do, so any single one is enough to find it.
+     */
+    @Nullable
+    private static Ingredient getKeyIngredient(Recipe<?> recipe) {
+        Ingredient key = null;
+        int keySize = Integer.MAX_VALUE;
+        for (Ingredient ingredient : recipe.getIngredients()) {
+            // Custom ingredients may match items they do not list, empty ingredients match empty slots.
+            if (!ingredient.isSimple())
+                continue;
+
+            int size = ingredient.getItems().length;
+            if (size > 0 && size < keySize) {
+                key = ingredient;
+                keySize = size;
+            }
+        }
+        return key;
+    }
+
+    @SubscribeEvent
+    public static void onRecipesUpdated(RecipesUpdatedEvent event) {
+        // The client keeps its recipe manager and replaces the recipes.
+        INDICES.remove(event.getRecipeManager());
+    }
+
+    @SubscribeEvent
+    public static void onTagsUpdated(TagsUpdatedEvent event) {
+        // Tag ingredients now match other items.
+        INDICES.clear();
+    }
+}
@@ -8,10 +8,12 @@ import com.enderio.machines.common.init.MachineRecipes;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonObject;
 import com.mojang.datafixers.util.Either;
+import net.minecraft.core.NonNullList;
 import net.minecraft.network.FriendlyByteBuf;
 import net.minecraft.resources.ResourceLocation;
 import net.minecraft.tags.ItemTags;
 import net.minecraft.tags.TagKey;
+import net.minecraft.util.RandomSource;
 import net.minecraft.world.item.Item;
 import net.minecraft.world.item.ItemStack;
 import net.minecraft.world.item.crafting.Ingredient;
@@ -25,18 +27,18 @@ import org.jetbrains.annotations.Nullable;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Random;
 import java.util.function.Supplier;
 
 public class SagMillingRecipe implements MachineRecipe<SagMillingRecipe.Container> {
-    private static final Random RANDOM = new Random();
-
     private final ResourceLocation id;
     private final Ingredient input;
     private final List<OutputItem> outputs;
     private final int energy;
     private final BonusType bonusType;
 
+    @Nullable
+    private volatile ResolvedOutputs resolved;
+
     public SagMillingRecipe(ResourceLocation id, Ingredient input, List<OutputItem> outputs, int energy, BonusType bonusType) {
         this.id = id;
         this.input = input;
@@ -59,46 +61,35 @@ public class SagMillingRecipe implements MachineRecipe<SagMillingRecipe.Containe
     }
 
     @Override
-    public List<OutputStack> craft(Container container) {
-        List<OutputStack> outputs = new ArrayList<>();
+    public List<OutputStack> craft(Container container, RandomSource random) {
+        ResolvedOutputs resolved = getResolvedOutputs();
 
         // Iterate over the number of outputs
         float outputCount = getBonusType().canMultiply() ? container.getGrindingBall().getOutputMultiplier() : 1.0f;
         float chanceMult = getBonusType().doChance() ? container.getGrindingBall().getBonusMultiplier() : 1.0f;
 
+        // Total count of each distinct item.
+        int[] totals = new int[resolved.distinctItems.length];
+
         // Iterate over the number of outputs.
         // Without a grinding ball this only runs once.
         while (outputCount > 0) {
-            if (RANDOM.nextFloat() < outputCount) {
-                for (OutputItem output : this.outputs) {
-                    if (output.isPresent() && RANDOM.nextFloat() < output.getChance() * chanceMult) {
-                        // Collect the output
-                        Item item = output.getItem();
-                        int count = output.getCount();
-
-                        // Attempt to add to an existing stack.
-                        for (OutputStack stack : outputs) {
-                            if (count <= 0)
-                                break;
-
-                            ItemStack itemStack = stack.getItem();
-                            if (itemStack.is(item)) {
-                                int growth = Math.min(count, itemStack.getMaxStackSize());
-                                itemStack.grow(growth);
-                                count -= growth;
-                            }
-                        }
-
-                        // Add new stack.
-                        if (count >= 0) {
-                            outputs.add(OutputStack.of(new ItemStack(item, count)));
-                        }
+            if (random.nextFloat() < outputCount) {
+                for (int i = 0; i < resolved.items.length; i++) {
+                    if (random.nextFloat() < resolved.chances[i] * chanceMult) {
+                        totals[resolved.distinctIndex[i]] += resolved.counts[i];
                     }
                 }
             }
             outputCount--;
         }
 
+        List<OutputStack> outputs = new ArrayList<>();
+        for (int i = 0; i < totals.length; i++) {
+            if (totals[i] > 0) {
+                outputs.add(OutputStack.of(new ItemStack(resolved.distinctItems[i], totals[i])));
+            }
+        }
         return outputs;
     }
 
@@ -106,15 +97,34 @@ public class SagMillingRecipe implements MachineRecipe<SagMillingRecipe.Containe
     public List<OutputStack> getResultStacks() {
         // TODO: This logic seems dumb.
         // Gather guaranteed outputs (that are loaded)
+        ResolvedOutputs resolved = getResolvedOutputs();
         List<OutputStack> guaranteedOutputs = new ArrayList<>();
-        for (OutputItem item : outputs) {
-            if (item.chance >= 1.0f && item.isPresent()) {
-                guaranteedOutputs.add(OutputStack.of(new ItemStack(item.getItem(), item.getCount())));
+        for (int i = 0; i < resolved.items.length; i++) {
+            if (resolved.chances[i] >= 1.0f) {
+                guaranteedOutputs.add(OutputStack.of(new ItemStack(resolved.items[i], resolved.counts[i])));
             }
         }
         return guaranteedOutputs;
     }
 
+    /**
+     * Get the outputs with their tags resolved, resolving them again after tags were reloaded.
+     */
+    private ResolvedOutputs getResolvedOutputs() {
+        ResolvedOutputs resolved = this.resolved;
+        int tagGeneration = TagUtil.getTagGeneration();
+        if (resolved == null || resolved.tagGeneration != tagGeneration) {
+            resolved = new ResolvedOutputs(outputs, tagGeneration);
+            this.resolved = resolved;
+        }
+        return resolved;
+    }
+
+    @Override
+    public NonNullList<Ingredient> getIngredients() {
+        return NonNullList.of(Ingredient.EMPTY, input);
+    }
+
     @Override
     public boolean matches(Container container, Level level) {
         return input.test(container.getItem(0));
@@ -219,6 +229,49 @@ public class SagMillingRecipe implements MachineRecipe<SagMillingRecipe.Containe
         }
     }
 
+    /**
+     * The outputs that are present, flattened into arrays so crafting doesn't look up tags.
+     * Outputs of the same item share an index into {@link #distinctItems}, so they are merged into one stack.
+     */
+    private static class ResolvedOutputs {
+        private final int tagGeneration;
+        private final Item[] items;
+        private final int[] counts;
+        private final float[] chances;
+        private final int[] distinctIndex;
+        private final Item[] distinctItems;
+
+        private ResolvedOutputs(List<OutputItem> outputs, int tagGeneration) {
+            this.tagGeneration = tagGeneration;
+
+            List<Item> items = new ArrayList<>();
+            List<Item> distinctItems = new ArrayList<>();
+            counts = new int[outputs.size()];
+            chances = new float[outputs.size()];
+            distinctIndex = new int[outputs.size()];
+            for (OutputItem output : outputs) {
+                Item item = output.getItem();
+                if (item == null)
+                    continue;
+
+                int i = items.size();
+                items.add(item);
+                counts[i] = output.getCount();
+                chances[i] = output.getChance();
+
+                int distinct = distinctItems.indexOf(item);
+                if (distinct < 0) {
+                    distinct = distinctItems.size();
+                    distinctItems.add(item);
+                }
+                distinctIndex[i] = distinct;
+            }
+
+            this.items = items.toArray(new Item[0]);
+            this.distinctItems = distinctItems.toArray(new Item[0]);
+        }
+    }
+
     public static class Container extends RecipeWrapper {
 
         private final Supplier<IGrindingBallData> grindingBallData;
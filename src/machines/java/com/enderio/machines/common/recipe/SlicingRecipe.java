@@ -7,8 +7,10 @@ import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import net.minecraft.ResourceLocationException;
+import net.minecraft.core.NonNullList;
 import net.minecraft.network.FriendlyByteBuf;
 import net.minecraft.resources.ResourceLocation;
+import net.minecraft.util.RandomSource;
 import net.minecraft.world.Container;
 import net.minecraft.world.item.Item;
 import net.minecraft.world.item.ItemStack;
@@ -42,7 +44,7 @@ public class SlicingRecipe implements MachineRecipe<Container> {
     }
 
     @Override
-    public List<OutputStack> craft(Container container) {
+    public List<OutputStack> craft(Container container, RandomSource random) {
         return getResultStacks();
     }
 
@@ -51,6 +53,13 @@ public class SlicingRecipe implements MachineRecipe<Container> {
         return List.of(OutputStack.of(new ItemStack(output, 1)));
     }
 
+    @Override
+    public NonNullList<Ingredient> getIngredients() {
+        NonNullList<Ingredient> ingredients = NonNullList.create();
+        ingredients.addAll(inputs);
+        return ingredients;
+    }
+
     @Override
     public boolean matches(Container container, Level level) {
         for (int i = 0; i < inputs.size(); i++) {
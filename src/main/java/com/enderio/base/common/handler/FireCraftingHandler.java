@@ -10,6 +10,7 @@ import net.minecraft.resources.ResourceLocation;
 import net.minecraft.server.level.ServerLevel;
 import net.minecraft.sounds.SoundEvents;
 import net.minecraft.sounds.SoundSource;
+import net.minecraft.util.RandomSource;
 import net.minecraft.world.damagesource.DamageSource;
 import net.minecraft.world.entity.item.ItemEntity;
 import net.minecraft.world.item.ItemStack;
@@ -32,7 +33,6 @@ import java.util.*;
 @SuppressWarnings("unused")
 @Mod.EventBusSubscriber(modid = EnderIO.MODID)
 public class FireCraftingHandler {
-    private static final Random RANDOM = new Random();
     private static final Map<FireIndex, Long> FIRE_TRACKER = new HashMap<>();
 
     private static List<FireCraftingRecipe> cachedRecipes;
@@ -103,9 +103,10 @@ public class FireCraftingHandler {
         if (table != LootTable.EMPTY) {
             for (ItemStack item : table.getRandomItems(ctx)) {
                 // Get random offset
-                double x = RANDOM.nextFloat() * 0.5f + 0.25f;
-                double y = RANDOM.nextFloat() * 0.5f + 0.25f;
-                double z = RANDOM.nextFloat() * 0.5f + 0.25f;
+                RandomSource random = level.getRandom();
+                double x = random.nextFloat() * 0.5f + 0.25f;
+                double y = random.nextFloat() * 0.5f + 0.25f;
+                double z = random.nextFloat() * 0.5f + 0.25f;
                 ItemEntity itemEntity = new ItemEntity(level, pos.getX() + x, pos.getY() + y, pos.getZ() + z, item);
                 itemEntity.setDefaultPickUpDelay();
 
@@ -117,7 +118,7 @@ public class FireCraftingHandler {
                 level.addFreshEntity(itemEntity);
 
                 // Play explosion sound
-                level.playSound(null, pos, SoundEvents.FIREWORK_ROCKET_LARGE_BLAST, SoundSource.BLOCKS, 1.0f, RANDOM.nextFloat() * 0.4f + 0.8f);
+                level.playSound(null, pos, SoundEvents.FIREWORK_ROCKET_LARGE_BLAST, SoundSource.BLOCKS, 1.0f, random.nextFloat() * 0.4f + 0.8f);
             }
         }
     }
@@ -21,6 +21,7 @@ import net.minecraft.core.Direction;
 import net.minecraft.core.Vec3i;
 import net.minecraft.core.particles.ParticleTypes;
 import net.minecraft.util.Mth;
+import net.minecraft.util.RandomSource;
 import net.minecraft.world.InteractionHand;
 import net.minecraft.world.entity.LivingEntity;
 import net.minecraft.world.entity.player.Player;
@@ -45,15 +46,12 @@ import net.minecraftforge.fml.common.Mod;
 import org.jetbrains.annotations.Nullable;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Random;
 
 @Mod.EventBusSubscriber(value = Dist.CLIENT, bus = Mod.EventBusSubscriber.Bus.FORGE)
 public class ExplosiveUpgradeHandler {
 
     private static final ForgeConfigSpec.ConfigValue<Integer> EXPLOSIVE_BREAK_POWER_USE = BaseConfig.COMMON.DARK_STEEL.EXPLOSIVE_ENERGY_PER_EXPLODED_BLOCK;
 
-    private static final Random RAND = new Random();
-
     public static boolean hasExplosiveUpgrades(ItemStack stack) {
         return DarkSteelUpgradeable.hasUpgrade(stack, ExplosiveUpgrade.NAME) || DarkSteelUpgradeable.hasUpgrade(stack, ExplosivePenetrationUpgrade.NAME);
     }
@@ -93,9 +91,10 @@ public class ExplosiveUpgradeHandler {
         }
         if (BlockUtil.removeBlock(level, player, itemStack, minePos)) {
             EnergyUtil.extractEnergy(itemStack, EXPLOSIVE_BREAK_POWER_USE.get(),false);
-            if (RAND.nextFloat() < .3f) {
+            RandomSource random = level.getRandom();
+            if (random.nextFloat() < .3f) {
                 particles.add(minePos, ParticleTypes.LARGE_SMOKE);
-            } else if (RAND.nextFloat() < .7f) {
+            } else if (random.nextFloat() < .7f) {
                 particles.add(minePos, ParticleTypes.SMOKE);
             }
             return true;
@@ -109,6 +109,7 @@ public class EIOLang {
     public static final MutableComponent CAPACITOR_TOOLTIP_ENERGY_CAPACITY = REGISTRATE.addLang("tooltip", CapacitorModifier.ENERGY_CAPACITY.id, "Energy Capacity Modifier: %s");
     public static final MutableComponent CAPACITOR_TOOLTIP_ENERGY_USE = REGISTRATE.addLang("tooltip", CapacitorModifier.ENERGY_USE.id, "Energy Use Modifier: %s");
     public static final MutableComponent CAPACITOR_TOOLTIP_ENERGY_TRANSFER = REGISTRATE.addLang("tooltip", CapacitorModifier.ENERGY_TRANSFER.id, "Energy Transfer Modifier: %s");
+    public static final MutableComponent CAPACITOR_TOOLTIP_PARALLEL = REGISTRATE.addLang("tooltip", CapacitorModifier.PARALLEL.id, "Parallel Crafting Modifier: %s");
     
     // endregion
 